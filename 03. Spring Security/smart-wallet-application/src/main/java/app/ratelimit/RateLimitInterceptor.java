@@ -0,0 +1,71 @@
+package app.ratelimit;
+
+import app.security.AuthenticationMetadata;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.TimeUnit;
+
+// Ограничава заявките по endpoint (URI pattern) и по потребител.
+// Логнат потребител -> AuthenticationMetadata.userId, анонимен (/register, /login) -> IP адрес.
+// Зад load balancer трябва server.forward-headers-strategy=native, за да е верен getRemoteAddr().
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private static final String RATE_LIMITED_METRIC = "smart-wallet.http.rate-limited";
+
+    private final RateLimitProperties properties;
+    private final RateLimiter rateLimiter;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public RateLimitInterceptor(RateLimitProperties properties, RateLimiter rateLimiter, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.rateLimiter = rateLimiter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+
+        if (!properties.isEnabled()) {
+            return true;
+        }
+
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        RateLimitProperties.Limit limit = pattern != null ? properties.getLimitFor(pattern.toString()) : null;
+        if (limit == null) {
+            return true;
+        }
+
+        long waitNanos = rateLimiter.tryAcquire(pattern + "|" + clientKey(request), limit);
+        if (waitNanos == 0) {
+            return true;
+        }
+
+        meterRegistry.counter(RATE_LIMITED_METRIC, "uri", pattern.toString()).increment();
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1)));
+        response.sendError(HttpStatus.TOO_MANY_REQUESTS.value());
+
+        return false;
+    }
+
+    private String clientKey(HttpServletRequest request) {
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticationMetadata authenticationMetadata) {
+            return authenticationMetadata.getUserId().toString();
+        }
+
+        return request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,54 @@
+package app.ratelimit;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+// smart-wallet.rate-limit.routes[/register].capacity=10
+// smart-wallet.rate-limit.routes[/register].refill-period=PT1M
+// Валидира се при bind - грешна конфигурация спира стартирането, вместо да гърми на всяка заявка
+@Data
+@Component
+@Validated
+@ConfigurationProperties(prefix = "smart-wallet.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // Общ лимит на bucket-ите в паметта (за всички shard-ове)
+    private int maxBuckets = 100_000;
+
+    // Пълен bucket, който не е използван толкова време, се изтрива - при следваща заявка се създава наново пълен
+    private Duration idleTimeout = Duration.ofMinutes(5);
+
+    // URI pattern -> лимит. Endpoint-и, които ги няма тук, не се ограничават.
+    private Map<String, @Valid Limit> routes = new HashMap<>();
+
+    public Limit getLimitFor(String uriPattern) {
+        return routes.get(uriPattern);
+    }
+
+    // capacity заявки на refillPeriod, като до capacity могат да дойдат наведнъж (burst)
+    @Data
+    public static class Limit {
+
+        // Без capacity (0) emissionIntervalNanos() би делил на нула
+        @Min(1)
+        private int capacity;
+
+        @NotNull
+        private Duration refillPeriod = Duration.ofSeconds(1);
+
+        public long emissionIntervalNanos() {
+            return refillPeriod.toNanos() / capacity;
+        }
+    }
+}
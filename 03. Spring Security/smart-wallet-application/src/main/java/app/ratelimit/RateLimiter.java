@@ -0,0 +1,91 @@
+package app.ratelimit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Bucket-ите са разделени на shard-ове, всеки с лимит maxBuckets / SHARDS.
+// Когато shard се напълни, първо се трият idle bucket-ите му, а ако не стигат - произволни
+// (паметта остава ограничена и при много различни IP адреси).
+@Slf4j
+@Component
+public class RateLimiter {
+
+    private static final int SHARDS = 16;
+
+    private final RateLimitProperties properties;
+    private final Map<String, TokenBucket>[] shards;
+    private final int maxBucketsPerShard;
+
+    @Autowired
+    @SuppressWarnings("unchecked")
+    public RateLimiter(RateLimitProperties properties) {
+
+        this.properties = properties;
+        this.maxBucketsPerShard = Math.max(1, properties.getMaxBuckets() / SHARDS);
+        this.shards = new Map[SHARDS];
+        for (int i = 0; i < SHARDS; i++) {
+            shards[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    // 0 - заявката минава, иначе след колко наносекунди може да се опита пак
+    public long tryAcquire(String key, RateLimitProperties.Limit limit) {
+
+        long now = System.nanoTime();
+        Map<String, TokenBucket> shard = shardFor(key);
+
+        TokenBucket bucket = shard.get(key);
+        if (bucket == null) {
+            if (shard.size() >= maxBucketsPerShard) {
+                evict(shard, now);
+            }
+            bucket = shard.computeIfAbsent(key, k -> new TokenBucket(limit.getCapacity(), limit.emissionIntervalNanos(), now));
+        }
+
+        return bucket.tryConsume(now);
+    }
+
+    public int size() {
+
+        int size = 0;
+        for (Map<String, TokenBucket> shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    @Scheduled(fixedDelayString = "${smart-wallet.rate-limit.eviction-interval-ms:60000}")
+    public void evictIdleBuckets() {
+
+        long now = System.nanoTime();
+        long idleNanos = properties.getIdleTimeout().toNanos();
+
+        for (Map<String, TokenBucket> shard : shards) {
+            shard.values().removeIf(bucket -> bucket.isIdle(now, idleNanos));
+        }
+    }
+
+    private void evict(Map<String, TokenBucket> shard, long now) {
+
+        long idleNanos = properties.getIdleTimeout().toNanos();
+        shard.values().removeIf(bucket -> bucket.isIdle(now, idleNanos));
+
+        Iterator<TokenBucket> iterator = shard.values().iterator();
+        while (shard.size() >= maxBucketsPerShard && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private Map<String, TokenBucket> shardFor(String key) {
+
+        int hash = key.hashCode();
+        return shards[(hash ^ (hash >>> 16)) & (SHARDS - 1)];
+    }
+}
@@ -0,0 +1,44 @@
+package app.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token bucket, реализиран като GCRA (generic cell rate algorithm):
+// вместо брой токени и време на последното зареждане пазим един long - "theoretical arrival time" (TAT).
+// Всяка заявка мести TAT напред с един интервал; ако TAT избяга на повече от capacity интервала
+// пред текущия момент, bucket-ът е празен. Един CAS, без lock-ове.
+public class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrivalTime;
+
+    public TokenBucket(int capacity, long emissionIntervalNanos, long nowNanos) {
+
+        this.emissionIntervalNanos = emissionIntervalNanos;
+        this.burstNanos = capacity * emissionIntervalNanos;
+        // TAT <= now - bucket-ът е пълен
+        this.theoreticalArrivalTime = new AtomicLong(nowNanos);
+    }
+
+    // 0 - заявката минава, иначе след колко наносекунди ще има свободен токен
+    public long tryConsume(long nowNanos) {
+
+        while (true) {
+            long tat = theoreticalArrivalTime.get();
+            long newTat = Math.max(tat, nowNanos) + emissionIntervalNanos;
+            long ahead = newTat - nowNanos;
+
+            if (ahead > burstNanos) {
+                return ahead - burstNanos;
+            }
+            if (theoreticalArrivalTime.compareAndSet(tat, newTat)) {
+                return 0;
+            }
+        }
+    }
+
+    // Пълен и неизползван поне idleNanos - може да се изтрие без да се промени поведението
+    public boolean isIdle(long nowNanos, long idleNanos) {
+        return nowNanos - theoreticalArrivalTime.get() >= idleNanos;
+    }
+}
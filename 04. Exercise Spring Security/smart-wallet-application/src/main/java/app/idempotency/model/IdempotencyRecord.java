@@ -0,0 +1,41 @@
+package app.idempotency.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Резултатът от заявка с Idempotency-Key - повторната заявка с същия ключ връща същата транзакция
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "idempotency_records", indexes = @Index(name = "idx_idempotency_expires_on", columnList = "expiresOn"))
+public class IdempotencyRecord {
+
+    // userId + ":" + ключа от клиента
+    @Id
+    @Column(length = 128)
+    private String idempotencyKey;
+
+    // SHA-256 на операцията и параметрите й - същия ключ с други параметри е грешка
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    private UUID transactionId;
+
+    @Column(nullable = false)
+    private LocalDateTime createdOn;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresOn;
+}
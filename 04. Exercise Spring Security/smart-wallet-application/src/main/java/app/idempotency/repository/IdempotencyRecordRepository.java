@@ -0,0 +1,19 @@
+package app.idempotency.repository;
+
+import app.idempotency.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    // Един DELETE вместо зареждане на всеки изтекъл запис
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresOn < :now")
+    int deleteAllExpired(@Param("now") LocalDateTime now);
+}
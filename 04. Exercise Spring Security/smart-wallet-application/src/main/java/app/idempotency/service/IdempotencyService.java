@@ -0,0 +1,237 @@
+package app.idempotency.service;
+
+import app.exception.IdempotencyKeyInProgressException;
+import app.exception.IdempotencyKeyReuseException;
+import app.idempotency.model.IdempotencyRecord;
+import app.idempotency.repository.IdempotencyRecordRepository;
+import app.transaction.model.Transaction;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// Exactly-once за top-up, charge и transfer при повторени заявки (retry от браузъра или load balancer-а).
+// 1. Заявки с един и същ ключ в този instance чакат първата (inFlight) вместо да се изпълнят пак.
+// 2. Последните резултати се пазят в ограничен LRU кеш в паметта.
+// 3. В базата записът се вмъква в същата транзакция като операцията - ако тя се rollback-не, ключът е свободен,
+//    а друг instance със същия ключ получава duplicate key и връща вече записания резултат.
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    // HTML форми не могат да пращат header - скрито поле със същата стойност
+    public static final String IDEMPOTENCY_KEY_PARAM = "idempotencyKey";
+    private static final int MAX_KEY_LENGTH = 64;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+
+    private final Map<String, InFlightRequest> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, StoredResult> recentResults;
+
+    @Autowired
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${smart-wallet.idempotency.ttl:PT24H}") Duration ttl,
+                              @Value("${smart-wallet.idempotency.max-cached-keys:10000}") int maxCachedKeys) {
+
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = ttl;
+        // access-order LinkedHashMap - най-отдавна използвания ключ излиза първи
+        this.recentResults = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredResult> eldest) {
+                return size() > maxCachedKeys;
+            }
+        });
+    }
+
+    public String resolveKey(HttpServletRequest request) {
+
+        String key = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+        if (key == null || key.isBlank()) {
+            key = request.getParameter(IDEMPOTENCY_KEY_PARAM);
+        }
+
+        return key == null || key.isBlank() ? null : key.trim();
+    }
+
+    // Връща id на транзакцията - при повторение записаното, без да се извиква operation.
+    // Без ключ операцията се изпълнява както преди.
+    public UUID execute(UUID userId, String clientKey, String requestFingerprint, Supplier<Transaction> operation) {
+
+        if (clientKey == null) {
+            return operation.get().getId();
+        }
+
+        if (clientKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency key must be at most %d characters.".formatted(MAX_KEY_LENGTH));
+        }
+
+        String key = userId + ":" + clientKey;
+        String requestHash = sha256(requestFingerprint);
+
+        StoredResult cached = recentResults.get(key);
+        if (cached != null && cached.expiresOn().isAfter(LocalDateTime.now())) {
+            return cached.transactionIdFor(key, requestHash);
+        }
+
+        InFlightRequest mine = new InFlightRequest(requestHash, new CompletableFuture<>());
+        InFlightRequest existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            return awaitDuplicate(key, requestHash, existing);
+        }
+
+        try {
+            UUID transactionId = executeOnce(key, requestHash, operation);
+            recentResults.put(key, new StoredResult(requestHash, transactionId, LocalDateTime.now().plus(ttl)));
+            mine.result().complete(transactionId);
+            return transactionId;
+        } catch (RuntimeException e) {
+            mine.result().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${smart-wallet.idempotency.purge-interval-ms:600000}")
+    public void purgeExpired() {
+
+        LocalDateTime now = LocalDateTime.now();
+
+        synchronized (recentResults) {
+            recentResults.values().removeIf(result -> !result.expiresOn().isAfter(now));
+        }
+
+        Integer deleted = transactionTemplate.execute(status -> idempotencyRecordRepository.deleteAllExpired(now));
+        if (deleted != null && deleted > 0) {
+            log.info("Purged [{}] expired idempotency records.", deleted);
+        }
+    }
+
+    private UUID executeOnce(String key, String requestHash, Supplier<Transaction> operation) {
+
+        Optional<IdempotencyRecord> stored = idempotencyRecordRepository.findById(key)
+                .filter(record -> record.getExpiresOn().isAfter(LocalDateTime.now()));
+        if (stored.isPresent()) {
+            return transactionIdOf(stored.get(), requestHash);
+        }
+
+        try {
+            return transactionTemplate.execute(status -> {
+
+                IdempotencyRecord record = insertRecord(key, requestHash);
+
+                // WalletService методите са @Transactional и се включват в тази транзакция.
+                // DataIntegrityViolationException от самата операция не е повторение - стига до извикващия.
+                Transaction transaction = operation.get();
+                record.setTransactionId(transaction.getId());
+
+                return transaction.getId();
+            });
+        } catch (DuplicateIdempotencyKeyException e) {
+            // Друг instance е вмъкнал същия ключ и е commit-нал преди нас
+            IdempotencyRecord record = idempotencyRecordRepository.findById(key)
+                    .orElseThrow(() -> new IdempotencyKeyInProgressException("Request with this idempotency key is still in progress."));
+            return transactionIdOf(record, requestHash);
+        }
+    }
+
+    // Отделна стъпка преди операцията - конфликт тук може да е само първичният ключ на idempotency_records
+    private IdempotencyRecord insertRecord(String key, String requestHash) {
+
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            return idempotencyRecordRepository.saveAndFlush(IdempotencyRecord.builder()
+                    .idempotencyKey(key)
+                    .requestHash(requestHash)
+                    .createdOn(now)
+                    .expiresOn(now.plus(ttl))
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            throw new DuplicateIdempotencyKeyException(e);
+        }
+    }
+
+    private UUID awaitDuplicate(String key, String requestHash, InFlightRequest existing) {
+
+        if (!existing.requestHash().equals(requestHash)) {
+            throw new IdempotencyKeyReuseException("Idempotency key [%s] was already used for a different request.".formatted(key));
+        }
+
+        try {
+            return existing.result().join();
+        } catch (CompletionException e) {
+            // Първата заявка е гръмнала - повторението получава същата грешка
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private UUID transactionIdOf(IdempotencyRecord record, String requestHash) {
+
+        if (!record.getRequestHash().equals(requestHash)) {
+            throw new IdempotencyKeyReuseException("Idempotency key [%s] was already used for a different request.".formatted(record.getIdempotencyKey()));
+        }
+        if (record.getTransactionId() == null) {
+            throw new IdempotencyKeyInProgressException("Request with this idempotency key is still in progress.");
+        }
+
+        return record.getTransactionId();
+    }
+
+    private static String sha256(String value) {
+
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record InFlightRequest(String requestHash, CompletableFuture<UUID> result) {
+    }
+
+    // Rollback-ва транзакцията на executeOnce и се хваща само там
+    private static final class DuplicateIdempotencyKeyException extends RuntimeException {
+
+        private DuplicateIdempotencyKeyException(DataIntegrityViolationException cause) {
+            super(cause);
+        }
+    }
+
+    private record StoredResult(String requestHash, UUID transactionId, LocalDateTime expiresOn) {
+
+        UUID transactionIdFor(String key, String requestHash) {
+
+            if (!this.requestHash.equals(requestHash)) {
+                throw new IdempotencyKeyReuseException("Idempotency key [%s] was already used for a different request.".formatted(key));
+            }
+
+            return transactionId;
+        }
+    }
+}
@@ -1,9 +1,14 @@
 package app.transaction.repository;
 
 import app.transaction.model.Transaction;
+import app.transaction.model.TransactionStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -13,4 +18,46 @@ public interface TransactionRepository extends JpaRepository<Transaction, UUID>
     List<Transaction> findAllByOwnerIdOrderByCreatedOnDesc(UUID ownerId);
 
     List<Transaction> findAllBySenderOrReceiverOrderByCreatedOnDesc(String sender, String receiver);
+
+    // Търсене по BINARY(16) колоните - филтрите и LIMIT-а се изпълняват в базата.
+    // owner е EAGER - JOIN FETCH, за да не е отделна заявка след резултата
+    @Query("""
+            SELECT t FROM Transaction t JOIN FETCH t.owner
+            WHERE (t.senderWalletId = :walletId OR t.receiverWalletId = :walletId)
+            AND t.owner.id = :ownerId AND t.status = :status
+            ORDER BY t.createdOn DESC
+            """)
+    List<Transaction> findLatestByWalletId(@Param("walletId") UUID walletId, @Param("ownerId") UUID ownerId, @Param("status") TransactionStatus status, Limit limit);
+
+    // Wallets page: последните perWallet транзакции на всеки портфейл с една заявка.
+    // row_number() по портфейл върху индексите (senderWalletId, createdOn) и (receiverWalletId, createdOn);
+    // транзакция между два портфейла на потребителя идва веднъж - TransactionService я разпределя по портфейли.
+    @Query("""
+            SELECT t FROM Transaction t JOIN FETCH t.owner
+            WHERE t.id IN (
+                SELECT s.id FROM (
+                    SELECT st.id AS id, row_number() OVER (PARTITION BY st.senderWalletId ORDER BY st.createdOn DESC) AS walletRank
+                    FROM Transaction st
+                    WHERE st.senderWalletId IN :walletIds AND st.owner.id = :ownerId AND st.status = :status
+                ) s WHERE s.walletRank <= :perWallet)
+            OR t.id IN (
+                SELECT r.id FROM (
+                    SELECT rt.id AS id, row_number() OVER (PARTITION BY rt.receiverWalletId ORDER BY rt.createdOn DESC) AS walletRank
+                    FROM Transaction rt
+                    WHERE rt.receiverWalletId IN :walletIds AND rt.owner.id = :ownerId AND rt.status = :status
+                ) r WHERE r.walletRank <= :perWallet)
+            ORDER BY t.createdOn DESC
+            """)
+    List<Transaction> findLatestByWalletIds(@Param("walletIds") Collection<UUID> walletIds, @Param("ownerId") UUID ownerId, @Param("status") TransactionStatus status, @Param("perWallet") long perWallet);
+
+    // Същото по текстовите sender/receiver - само докато backfill-а на wallet id колоните не е приключил
+    @Query("""
+            SELECT t FROM Transaction t JOIN FETCH t.owner
+            WHERE (t.sender IN :walletIds OR t.receiver IN :walletIds)
+            AND t.owner.id = :ownerId AND t.status = :status
+            ORDER BY t.createdOn DESC
+            """)
+    List<Transaction> findAllByTextWalletIds(@Param("walletIds") Collection<String> walletIds, @Param("ownerId") UUID ownerId, @Param("status") TransactionStatus status);
+
+    List<Transaction> findAllByIdGreaterThanOrderByIdAsc(UUID lastId, Limit limit);
 }
@@ -0,0 +1,35 @@
+package app.user.repository;
+
+import app.user.model.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface UserRepository extends JpaRepository<User, UUID> {
+
+    Optional<User> findByUsername(String username);
+
+    // Fetch plans per view - колекциите се зареждат с JOIN в една заявка, а не lazy по време на рендерирането.
+    // wallets и subscriptions са List (bag) - Hibernate не може да fetch-не две bag колекции в една заявка,
+    // затова всеки graph взима само една от тях.
+    @EntityGraph(attributePaths = "wallets")
+    @Query("SELECT u FROM User u WHERE u.id = :id")
+    Optional<User> findWithWalletsById(@Param("id") UUID id);
+
+    @EntityGraph(attributePaths = "subscriptions")
+    @Query("SELECT u FROM User u WHERE u.id = :id")
+    Optional<User> findWithSubscriptionsById(@Param("id") UUID id);
+
+    // SELECT ... FOR UPDATE - сериализира операциите върху един и същи потребител
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM User u WHERE u.id = :id")
+    Optional<User> findByIdForUpdate(@Param("id") UUID id);
+}
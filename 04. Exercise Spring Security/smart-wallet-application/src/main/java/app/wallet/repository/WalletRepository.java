@@ -1,11 +1,18 @@
 package app.wallet.repository;
 
 import app.wallet.model.Wallet;
+import app.wallet.model.WalletStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Repository
@@ -14,4 +21,16 @@ public interface WalletRepository extends JpaRepository<Wallet, UUID> {
     List<Wallet> findAllByOwnerUsername(String username);
 
     Optional<Wallet> findByIdAndOwnerId(UUID id, UUID ownerId);
+
+    long countByOwnerId(UUID ownerId);
+
+    // SELECT ... FOR UPDATE - портфейлите не могат да се променят паралелно, докато транзакцията ги таксува.
+    // Подредени по id, за да се заключват винаги в един и същи ред (без deadlock между две транзакции).
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM Wallet w WHERE w.owner.id IN :ownerIds AND w.status = :status ORDER BY w.id")
+    List<Wallet> findAllByOwnerIdInAndStatusForUpdate(@Param("ownerIds") Collection<UUID> ownerIds, @Param("status") WalletStatus status);
+
+    // Кои от подадените id-та са реални портфейли (backfill на старите транзакции)
+    @Query("SELECT w.id FROM Wallet w WHERE w.id IN :ids")
+    Set<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
 }
@@ -1,13 +1,14 @@
 package app.wallet.service;
 
 import app.exception.DomainException;
-import app.subscription.model.Subscription;
 import app.subscription.model.SubscriptionType;
+import app.subscription.repository.SubscriptionRepository;
 import app.transaction.model.Transaction;
 import app.transaction.model.TransactionStatus;
 import app.transaction.model.TransactionType;
 import app.transaction.service.TransactionService;
 import app.user.model.User;
+import app.user.repository.UserRepository;
 import app.wallet.model.Wallet;
 import app.wallet.model.WalletStatus;
 import app.wallet.repository.WalletRepository;
@@ -28,39 +29,49 @@ import java.util.*;
 public class WalletService {
 
     private static final String SMART_WALLET_LTD = "Smart Wallet Ltd";
+    private static final Map<SubscriptionType, Integer> MAX_WALLETS_PER_PLAN = Map.of(
+            SubscriptionType.DEFAULT, 1,
+            SubscriptionType.PREMIUM, 2,
+            SubscriptionType.ULTIMATE, 3
+    );
 
     private final WalletRepository walletRepository;
     private final TransactionService transactionService;
     private final ApplicationEventPublisher eventPublisher;
+    private final SubscriptionRepository subscriptionRepository;
+    private final UserRepository userRepository;
 
     @Autowired
     public WalletService(WalletRepository walletRepository,
-                         TransactionService transactionService, ApplicationEventPublisher eventPublisher) {
+                         TransactionService transactionService, ApplicationEventPublisher eventPublisher,
+                         SubscriptionRepository subscriptionRepository, UserRepository userRepository) {
 
         this.walletRepository = walletRepository;
         this.transactionService = transactionService;
         this.eventPublisher = eventPublisher;
+        this.subscriptionRepository = subscriptionRepository;
+        this.userRepository = userRepository;
     }
 
+    // Заключваме реда на потребителя, за да не могат два паралелни "unlock" клика да минат лимита
+    @Transactional
     public void unlockNewWallet(User user) {
 
-        List<Wallet> allUserWallets = walletRepository.findAllByOwnerUsername(user.getUsername());
-        Subscription activeSubscription = user.getSubscriptions().get(0);
+        User owner = userRepository.findByIdForUpdate(user.getId())
+                .orElseThrow(() -> new DomainException("User with id [%s] does not exist.".formatted(user.getId())));
+
+        SubscriptionType activeSubscriptionType = getActiveSubscriptionType(user.getId());
+        long userWalletsCount = walletRepository.countByOwnerId(user.getId());
 
         // User: Pesho
         // Subscription: Premium
         // Wallets: 2
-
-        boolean isDefaultPlanAndMaxWalletsUnlocked = activeSubscription.getType() == SubscriptionType.DEFAULT && allUserWallets.size() == 1;
-        boolean isPremiumPlanAndMaxWalletsUnlocked = activeSubscription.getType() == SubscriptionType.PREMIUM && allUserWallets.size() == 2;
-        boolean isUltimatePlanAndMaxWalletsUnlocked = activeSubscription.getType() == SubscriptionType.ULTIMATE && allUserWallets.size() == 3;
-
-        if (isDefaultPlanAndMaxWalletsUnlocked || isPremiumPlanAndMaxWalletsUnlocked || isUltimatePlanAndMaxWalletsUnlocked) {
-            throw new DomainException("Max wallet count reached for user with id [%s] and subscription type [%s]".formatted(user.getId(), activeSubscription.getType()));
+        if (userWalletsCount >= MAX_WALLETS_PER_PLAN.get(activeSubscriptionType)) {
+            throw new DomainException("Max wallet count reached for user with id [%s] and subscription type [%s]".formatted(user.getId(), activeSubscriptionType));
         }
 
         Wallet newWallet = Wallet.builder()
-                .owner(user)
+                .owner(owner)
                 .status(WalletStatus.ACTIVE)
                 .balance(new BigDecimal(0))
                 .currency(Currency.getInstance("EUR"))
@@ -94,7 +105,9 @@ public class WalletService {
 
             return transactionService.createNewTransaction(wallet.getOwner(),
                     SMART_WALLET_LTD,
+                    null,
                     walletId.toString(),
+                    walletId,
                     amount,
                     wallet.getBalance(),
                     wallet.getCurrency(),
@@ -111,7 +124,9 @@ public class WalletService {
 
         return transactionService.createNewTransaction(wallet.getOwner(),
                 SMART_WALLET_LTD,
+                null,
                 walletId.toString(),
+                walletId,
                 amount,
                 wallet.getBalance(),
                 wallet.getCurrency(),
@@ -136,7 +151,9 @@ public class WalletService {
 
             return transactionService.createNewTransaction(sender,
                     senderWallet.getId().toString(),
+                    senderWallet.getId(),
                     transferRequest.getToUsername(),
+                    null,
                     transferRequest.getAmount(),
                     senderWallet.getBalance(),
                     senderWallet.getCurrency(),
@@ -163,7 +180,9 @@ public class WalletService {
         walletRepository.save(receiverWallet);
         transactionService.createNewTransaction(receiverWallet.getOwner(),
                 senderWallet.getId().toString(),
+                senderWallet.getId(),
                 receiverWallet.getId().toString(),
+                receiverWallet.getId(),
                 transferRequest.getAmount(),
                 receiverWallet.getBalance(),
                 receiverWallet.getCurrency(),
@@ -195,7 +214,9 @@ public class WalletService {
             return transactionService.createNewTransaction(
                     user,
                     wallet.getId().toString(),
+                    wallet.getId(),
                     SMART_WALLET_LTD,
+                    null,
                     amount,
                     wallet.getBalance(),
                     wallet.getCurrency(),
@@ -229,7 +250,9 @@ public class WalletService {
         return transactionService.createNewTransaction(
                 user,
                 wallet.getId().toString(),
+                wallet.getId(),
                 SMART_WALLET_LTD,
+                null,
                 amount,
                 wallet.getBalance(),
                 wallet.getCurrency(),
@@ -240,6 +263,12 @@ public class WalletService {
     }
 
 
+    private SubscriptionType getActiveSubscriptionType(UUID userId) {
+
+        return subscriptionRepository.findActiveTypeByOwnerId(userId)
+                .orElseThrow(() -> new DomainException("User with id [%s] does not have an active subscription.".formatted(userId)));
+    }
+
     private Wallet getWalletById(UUID walletId) {
 
         return walletRepository.findById(walletId)
@@ -258,17 +287,10 @@ public class WalletService {
                 .build();
     }
 
+    // Една заявка за всички портфейли - виж TransactionService.getLastFourTransactionsByWallets
     public Map<UUID, List<Transaction>> getLastFourTransactions(List<Wallet> wallets) {
 
-        Map<UUID, List<Transaction>> transactionsByWalletId = new LinkedHashMap<>();
-
-        for (Wallet wallet : wallets) {
-
-            List<Transaction> lastFourTransactions = transactionService.getLastFourTransactionsByWallet(wallet);
-            transactionsByWalletId.put(wallet.getId(), lastFourTransactions);
-        }
-
-        return transactionsByWalletId;
+        return transactionService.getLastFourTransactionsByWallets(wallets);
     }
 
     public void switchStatus(UUID walletId, UUID ownerId) {
@@ -1,12 +1,13 @@
 package app.web;
 
+import app.idempotency.service.IdempotencyService;
 import app.security.AuthenticationMetadata;
 import app.subscription.model.SubscriptionType;
 import app.subscription.service.SubscriptionService;
-import app.transaction.model.Transaction;
 import app.user.model.User;
 import app.user.service.UserService;
 import app.web.dto.UpgradeRequest;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
@@ -16,17 +17,21 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.ModelAndView;
 
+import java.util.UUID;
+
 @Controller
 @RequestMapping("/subscriptions")
 public class SubscriptionController {
 
     private final UserService userService;
     private final SubscriptionService subscriptionService;
+    private final IdempotencyService idempotencyService;
 
     @Autowired
-    public SubscriptionController(UserService userService, SubscriptionService subscriptionService) {
+    public SubscriptionController(UserService userService, SubscriptionService subscriptionService, IdempotencyService idempotencyService) {
         this.userService = userService;
         this.subscriptionService = subscriptionService;
+        this.idempotencyService = idempotencyService;
     }
 
     @GetMapping
@@ -44,19 +49,22 @@ public class SubscriptionController {
 
     @PostMapping
     public String upgrade(@RequestParam("subscription-type")SubscriptionType subscriptionType, UpgradeRequest upgradeRequest,
-                          @AuthenticationPrincipal AuthenticationMetadata authenticationMetadata) {
+                          @AuthenticationPrincipal AuthenticationMetadata authenticationMetadata, HttpServletRequest request) {
 
         User user = userService.getById(authenticationMetadata.getUserId());
 
-        Transaction upgradeResult = subscriptionService.upgrade(user, subscriptionType, upgradeRequest);
+        // Upgrade-а таксува портфейла (WalletService.charge) - повторената заявка не таксува втори път
+        String fingerprint = "upgrade:%s:%s:%s".formatted(subscriptionType, upgradeRequest.getSubscriptionPeriod(), upgradeRequest.getWalletId());
+        UUID transactionId = idempotencyService.execute(user.getId(), idempotencyService.resolveKey(request),
+                fingerprint, () -> subscriptionService.upgrade(user, subscriptionType, upgradeRequest));
 
-        return "redirect:/transactions/" + upgradeResult.getId();
+        return "redirect:/transactions/" + transactionId;
     }
 
     @GetMapping("/history")
     public ModelAndView getUserSubscriptions(@AuthenticationPrincipal AuthenticationMetadata authenticationMetadata) {
 
-        User user = userService.getById(authenticationMetadata.getUserId());
+        User user = userService.getByIdWithSubscriptions(authenticationMetadata.getUserId());
 
         ModelAndView modelAndView = new ModelAndView("subscription-history");
         modelAndView.addObject("user", user);
@@ -1,11 +1,12 @@
 package app.web;
 
+import app.idempotency.service.IdempotencyService;
 import app.security.AuthenticationMetadata;
-import app.transaction.model.Transaction;
 import app.user.model.User;
 import app.user.service.UserService;
 import app.wallet.service.WalletService;
 import app.web.dto.TransferRequest;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -16,17 +17,21 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.servlet.ModelAndView;
 
+import java.util.UUID;
+
 @Controller
 @RequestMapping("/transfers")
 public class TransferController {
 
     private final UserService userService;
     private final WalletService walletService;
+    private final IdempotencyService idempotencyService;
 
     @Autowired
-    public TransferController(UserService userService, WalletService walletService) {
+    public TransferController(UserService userService, WalletService walletService, IdempotencyService idempotencyService) {
         this.userService = userService;
         this.walletService = walletService;
+        this.idempotencyService = idempotencyService;
     }
 
     @GetMapping
@@ -43,7 +48,8 @@ public class TransferController {
     }
 
     @PostMapping
-    public ModelAndView initiateTransfer(@Valid TransferRequest transferRequest, BindingResult bindingResult, @AuthenticationPrincipal AuthenticationMetadata authenticationMetadata) {
+    public ModelAndView initiateTransfer(@Valid TransferRequest transferRequest, BindingResult bindingResult,
+                                         @AuthenticationPrincipal AuthenticationMetadata authenticationMetadata, HttpServletRequest request) {
 
         User user = userService.getById(authenticationMetadata.getUserId());
 
@@ -55,8 +61,10 @@ public class TransferController {
             return modelAndView;
         }
 
-        Transaction transaction = walletService.transferFunds(user, transferRequest);
+        String fingerprint = "transfer:%s:%s:%s".formatted(transferRequest.getFromWalletId(), transferRequest.getToUsername(), transferRequest.getAmount().stripTrailingZeros().toPlainString());
+        UUID transactionId = idempotencyService.execute(user.getId(), idempotencyService.resolveKey(request),
+                fingerprint, () -> walletService.transferFunds(user, transferRequest));
 
-        return new ModelAndView("redirect:/transactions/" + transaction.getId());
+        return new ModelAndView("redirect:/transactions/" + transactionId);
     }
 }
\ No newline at end of file
@@ -1,10 +1,12 @@
 package app.web;
 
+import app.idempotency.service.IdempotencyService;
 import app.security.AuthenticationMetadata;
 import app.transaction.model.Transaction;
 import app.user.model.User;
 import app.user.service.UserService;
 import app.wallet.service.WalletService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
@@ -22,18 +24,20 @@ public class WalletController {
 
     private final UserService userService;
     private final WalletService walletService;
+    private final IdempotencyService idempotencyService;
 
     @Autowired
-    public WalletController(UserService userService, WalletService walletService) {
+    public WalletController(UserService userService, WalletService walletService, IdempotencyService idempotencyService) {
 
         this.userService = userService;
         this.walletService = walletService;
+        this.idempotencyService = idempotencyService;
     }
 
     @GetMapping
     public ModelAndView getWalletsPage(@AuthenticationPrincipal AuthenticationMetadata authenticationMetadata) {
 
-        User user = userService.getById(authenticationMetadata.getUserId());
+        User user = userService.getByIdWithWallets(authenticationMetadata.getUserId());
         Map<UUID, List<Transaction>> lastFourTransactionsPerWallet = walletService.getLastFourTransactions(user.getWallets());
 
         ModelAndView modelAndView = new ModelAndView();
@@ -62,10 +66,12 @@ public class WalletController {
     }
 
     @PutMapping("/{id}/balance/top-up")
-    public String topUpWalletBalance(@PathVariable UUID id) {
+    public String topUpWalletBalance(@PathVariable UUID id, @AuthenticationPrincipal AuthenticationMetadata authenticationMetadata, HttpServletRequest request) {
 
-        Transaction transaction = walletService.topUp(id, BigDecimal.valueOf(20));
+        // Повторена заявка със същия Idempotency-Key връща първата транзакция, без да зарежда портфейла отново
+        UUID transactionId = idempotencyService.execute(authenticationMetadata.getUserId(), idempotencyService.resolveKey(request),
+                "top-up:" + id, () -> walletService.topUp(id, BigDecimal.valueOf(20)));
 
-        return "redirect:/transactions/" + transaction.getId();
+        return "redirect:/transactions/" + transactionId;
     }
 }
\ No newline at end of file
@@ -0,0 +1,11 @@
+package com.exception;
+
+public class InsufficientStockException extends RuntimeException {
+
+    public InsufficientStockException() {
+    }
+
+    public InsufficientStockException(String message) {
+        super(message);
+    }
+}
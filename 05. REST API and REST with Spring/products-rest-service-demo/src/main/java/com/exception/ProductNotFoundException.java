@@ -0,0 +1,11 @@
+package com.exception;
+
+public class ProductNotFoundException extends RuntimeException {
+
+    public ProductNotFoundException() {
+    }
+
+    public ProductNotFoundException(String message) {
+        super(message);
+    }
+}
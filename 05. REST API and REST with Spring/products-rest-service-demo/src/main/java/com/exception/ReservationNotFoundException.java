@@ -0,0 +1,11 @@
+package com.exception;
+
+public class ReservationNotFoundException extends RuntimeException {
+
+    public ReservationNotFoundException() {
+    }
+
+    public ReservationNotFoundException(String message) {
+        super(message);
+    }
+}
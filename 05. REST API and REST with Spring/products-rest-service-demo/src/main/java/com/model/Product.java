@@ -1,15 +1,21 @@
 package com.model;
 
 import lombok.Builder;
-import lombok.Data;
+import lombok.Value;
 
 import java.util.UUID;
 
-@Data
-@Builder
+// Immutable - ProductService подменя целия обект вместо да го променя на място,
+// така всеки, който държи референция (snapshot), вижда консистентно състояние
+@Value
+@Builder(toBuilder = true)
 public class Product {
 
-    private UUID id;
-    private String name;
-    private int quantity;
+    UUID id;
+    String name;
+    int quantity;
+    // Задържано от отворени резервации - вече е извадено от quantity
+    int reserved;
+    // Расте при всяка промяна - две състояния с еднакво quantity не са equals (CAS и индексите разчитат на това)
+    long revision;
 }
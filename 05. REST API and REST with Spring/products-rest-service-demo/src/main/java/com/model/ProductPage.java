@@ -0,0 +1,7 @@
+package com.model;
+
+import java.util.List;
+
+// hasNext вместо общ брой - броенето на филтриран skip list е O(n)
+public record ProductPage(List<Product> content, int page, int size, boolean hasNext) {
+}
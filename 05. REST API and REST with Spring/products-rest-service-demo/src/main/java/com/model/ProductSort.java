@@ -0,0 +1,13 @@
+package com.model;
+
+import java.util.Locale;
+
+public enum ProductSort {
+
+    NAME, QUANTITY;
+
+    // ?sort=name или ?sort=quantity (без значение главни/малки букви)
+    public static ProductSort from(String value) {
+        return value == null ? NAME : ProductSort.valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
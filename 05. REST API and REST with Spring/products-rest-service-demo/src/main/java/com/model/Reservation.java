@@ -0,0 +1,9 @@
+package com.model;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// Задържано количество - вече е извадено от Product.quantity.
+// confirm -> остава извадено, release/изтичане -> връща се обратно.
+public record Reservation(UUID id, UUID productId, int quantity, Instant expiresAt) {
+}
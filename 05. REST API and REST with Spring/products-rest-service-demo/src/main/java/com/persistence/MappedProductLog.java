@@ -0,0 +1,425 @@
+package com.persistence;
+
+import com.model.Product;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+// Append-only лог върху memory-mapped файлове (сегменти по segment-size байта) + периодичен compacted snapshot.
+//
+// Запис в лога:    [int дължина на body][int CRC32 на body][body]; дължина 0 = край на лога
+// Body:            long id.msb, long id.lsb, long revision, int quantity, int дължина на името (-1 = null), UTF-8 име,
+//                  int reserved (липсва в записите отпреди резервациите - тогава 0)
+// Snapshot:        [int MAGIC][long сегмент][int offset][long брой] + записи в същия формат
+//
+// Group commit: писачите копират записа в mapped буфера под кратък lock и (в режим GROUP) чакат следващия
+// force() на flusher нишката - един fsync покрива всички записи, направени междувременно.
+// Възстановяване: snapshot-а + всички записи след позицията в него; прилага се най-високия revision за всеки продукт.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "products.persistence.enabled", havingValue = "true", matchIfMissing = true)
+public class MappedProductLog implements ProductJournal, DisposableBean {
+
+    private static final int SNAPSHOT_MAGIC = 0x50524F44;
+    private static final int RECORD_HEADER = 8;
+    private static final String SNAPSHOT_FILE = "products.snapshot";
+
+    public enum SyncMode {
+        // Връща след fsync (group commit)
+        GROUP,
+        // Връща веднага - fsync-ът идва до flush-interval по-късно
+        ASYNC
+    }
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long flushIntervalNanos;
+    private final SyncMode syncMode;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private long segmentIndex;
+    private FileChannel segmentChannel;
+    private MappedByteBuffer segment;
+    private int writeOffset;
+    private int flushedOffset;
+    private CompletableFuture<Void> pendingFlush = new CompletableFuture<>();
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    public MappedProductLog(@Value("${products.persistence.directory:data/products}") String directory,
+                            @Value("${products.persistence.segment-size:67108864}") int segmentSize,
+                            @Value("${products.persistence.flush-interval-ms:2}") long flushIntervalMs,
+                            @Value("${products.persistence.sync-mode:GROUP}") SyncMode syncMode) throws IOException {
+
+        this.directory = Files.createDirectories(Path.of(directory));
+        this.segmentSize = segmentSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.syncMode = syncMode;
+    }
+
+    @Override
+    public void recover(Consumer<Product> consumer) {
+
+        long started = System.nanoTime();
+
+        try {
+            LogPosition start = loadSnapshot(consumer);
+            long replayed = 0;
+
+            List<Long> segments = listSegments();
+            long lastSegment = segments.isEmpty() ? start.segment() : Math.max(start.segment(), segments.get(segments.size() - 1));
+
+            for (long index : segments) {
+                if (index < start.segment()) {
+                    continue;
+                }
+                int from = index == start.segment() ? start.offset() : 0;
+                ReplayResult result = replaySegment(index, from, consumer, index == lastSegment);
+                replayed += result.records();
+                if (index == lastSegment) {
+                    openSegment(index, result.endOffset());
+                }
+            }
+
+            if (segmentChannel == null) {
+                openSegment(lastSegment, start.segment() == lastSegment ? start.offset() : 0);
+            }
+
+            log.info("Recovered products from [{}]: snapshot at segment [{}] offset [{}], [{}] log records replayed in [{}] ms.",
+                    directory, start.segment(), start.offset(), replayed, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to recover products from " + directory, e);
+        }
+
+        startFlusher();
+    }
+
+    @Override
+    public void appendAll(Collection<Product> products) {
+
+        List<byte[]> bodies = new ArrayList<>(products.size());
+        for (Product product : products) {
+            bodies.add(encode(product));
+        }
+
+        CompletableFuture<Void> flush;
+        appendLock.lock();
+        try {
+            for (byte[] body : bodies) {
+                if (writeOffset + RECORD_HEADER + body.length + Integer.BYTES > segmentSize) {
+                    rollSegment();
+                }
+                segment.putInt(writeOffset, body.length);
+                segment.putInt(writeOffset + Integer.BYTES, crc(body));
+                segment.put(writeOffset + RECORD_HEADER, body);
+                writeOffset += RECORD_HEADER + body.length;
+            }
+            flush = pendingFlush;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to append to product log.", e);
+        } finally {
+            appendLock.unlock();
+        }
+
+        if (syncMode == SyncMode.GROUP) {
+            flush.join();
+        }
+    }
+
+    // Compacted snapshot: по един запис за продукт. Сегментите преди позицията в snapshot-а се изтриват.
+    // Позицията се взима ПРЕДИ продуктите - промяна между двете стъпки е след позицията и се прилага при replay.
+    // Записите след позицията може вече да са в snapshot-а - при replay се прилага най-високия revision.
+    public void writeSnapshot(Supplier<? extends Collection<Product>> productsSupplier) throws IOException {
+
+        LogPosition position;
+        appendLock.lock();
+        try {
+            position = new LogPosition(segmentIndex, writeOffset);
+        } finally {
+            appendLock.unlock();
+        }
+
+        Collection<Product> products = productsSupplier.get();
+
+        Path temporary = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeLong(position.segment());
+            out.writeInt(position.offset());
+            out.writeLong(products.size());
+            for (Product product : products) {
+                byte[] body = encode(product);
+                out.writeInt(body.length);
+                out.writeInt(crc(body));
+                out.write(body);
+            }
+            out.flush();
+            channel.force(true);
+        }
+
+        Files.move(temporary, directory.resolve(SNAPSHOT_FILE), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        for (long index : listSegments()) {
+            if (index < position.segment()) {
+                Files.deleteIfExists(segmentPath(index));
+            }
+        }
+
+        log.info("Wrote products snapshot with [{}] products at segment [{}] offset [{}].", products.size(), position.segment(), position.offset());
+    }
+
+    @Override
+    public void destroy() {
+
+        running = false;
+        if (flusher != null) {
+            LockSupport.unpark(flusher);
+            try {
+                flusher.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flush();
+
+        try {
+            if (segmentChannel != null) {
+                segmentChannel.close();
+            }
+        } catch (IOException e) {
+            log.warn("Unable to close product log segment.", e);
+        }
+    }
+
+    private void startFlusher() {
+
+        running = true;
+        flusher = new Thread(() -> {
+            while (running) {
+                LockSupport.parkNanos(flushIntervalNanos);
+                flush();
+            }
+        }, "product-log-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    private void flush() {
+
+        CompletableFuture<Void> completed;
+        MappedByteBuffer buffer;
+        int from;
+        int length;
+
+        appendLock.lock();
+        try {
+            // Нищо ново - записите преди последния roll вече са force-нати от rollSegment()
+            if (segment == null || writeOffset == flushedOffset) {
+                return;
+            }
+            completed = pendingFlush;
+            pendingFlush = new CompletableFuture<>();
+            buffer = segment;
+            from = flushedOffset;
+            length = writeOffset - flushedOffset;
+            flushedOffset = writeOffset;
+        } finally {
+            appendLock.unlock();
+        }
+
+        try {
+            if (length > 0) {
+                buffer.force(from, length);
+            }
+            completed.complete(null);
+        } catch (RuntimeException e) {
+            completed.completeExceptionally(e);
+        }
+    }
+
+    // Извиква се под appendLock. Старият сегмент се force-ва веднага - рядко, веднъж на segment-size байта.
+    private void rollSegment() throws IOException {
+
+        segment.force(flushedOffset, writeOffset - flushedOffset);
+        segmentChannel.close();
+        openSegment(segmentIndex + 1, 0);
+    }
+
+    private void openSegment(long index, int offset) throws IOException {
+
+        segmentChannel = FileChannel.open(segmentPath(index), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = segmentChannel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        segmentIndex = index;
+        writeOffset = offset;
+        flushedOffset = offset;
+    }
+
+    private LogPosition loadSnapshot(Consumer<Product> consumer) throws IOException {
+
+        Path snapshot = directory.resolve(SNAPSHOT_FILE);
+        if (!Files.exists(snapshot)) {
+            return new LogPosition(0, 0);
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshot), 1 << 16))) {
+
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("Invalid products snapshot " + snapshot);
+            }
+            LogPosition position = new LogPosition(in.readLong(), in.readInt());
+            long count = in.readLong();
+
+            for (long i = 0; i < count; i++) {
+                byte[] body = new byte[in.readInt()];
+                int expectedCrc = in.readInt();
+                in.readFully(body);
+                if (crc(body) != expectedCrc) {
+                    throw new IOException("Corrupted record %d in products snapshot %s".formatted(i, snapshot));
+                }
+                consumer.accept(decode(ByteBuffer.wrap(body)));
+            }
+
+            return position;
+        }
+    }
+
+    private ReplayResult replaySegment(long index, int from, Consumer<Product> consumer, boolean last) throws IOException {
+
+        try (FileChannel channel = FileChannel.open(segmentPath(index), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(channel.size(), segmentSize));
+            int offset = from;
+            long records = 0;
+
+            while (offset + RECORD_HEADER <= segmentSize) {
+                int length = buffer.getInt(offset);
+                if (length == 0) {
+                    break;
+                }
+                if (length < 0 || offset + RECORD_HEADER + length > segmentSize) {
+                    return tornTail(buffer, index, offset, records, last);
+                }
+
+                byte[] body = new byte[length];
+                buffer.get(offset + RECORD_HEADER, body);
+                if (crc(body) != buffer.getInt(offset + Integer.BYTES)) {
+                    return tornTail(buffer, index, offset, records, last);
+                }
+
+                consumer.accept(decode(ByteBuffer.wrap(body)));
+                offset += RECORD_HEADER + length;
+                records++;
+            }
+
+            return new ReplayResult(offset, records);
+        }
+    }
+
+    // Недописан запис при срив - всичко след него е невалидно. В последния сегмент го нулираме,
+    // за да не се смеси с новите записи.
+    private ReplayResult tornTail(MappedByteBuffer buffer, long index, int offset, long records, boolean last) {
+
+        log.warn("Product log segment [{}] has an incomplete record at offset [{}] - ignoring the rest of the segment.", index, offset);
+
+        if (last) {
+            for (int i = offset; i < segmentSize; i++) {
+                buffer.put(i, (byte) 0);
+            }
+            buffer.force();
+        }
+
+        return new ReplayResult(offset, records);
+    }
+
+    private List<Long> listSegments() throws IOException {
+
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith("segment-") && name.endsWith(".log"))
+                    .map(name -> Long.parseLong(name.substring("segment-".length(), name.length() - ".log".length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path segmentPath(long index) {
+        return directory.resolve("segment-%016d.log".formatted(index));
+    }
+
+    private static byte[] encode(Product product) {
+
+        byte[] name = product.getName() == null ? null : product.getName().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES * 3 + Integer.BYTES * 3 + (name == null ? 0 : name.length));
+
+        buffer.putLong(product.getId().getMostSignificantBits());
+        buffer.putLong(product.getId().getLeastSignificantBits());
+        buffer.putLong(product.getRevision());
+        buffer.putInt(product.getQuantity());
+        buffer.putInt(name == null ? -1 : name.length);
+        if (name != null) {
+            buffer.put(name);
+        }
+        buffer.putInt(product.getReserved());
+
+        return buffer.array();
+    }
+
+    private static Product decode(ByteBuffer buffer) {
+
+        UUID id = new UUID(buffer.getLong(), buffer.getLong());
+        long revision = buffer.getLong();
+        int quantity = buffer.getInt();
+        int nameLength = buffer.getInt();
+
+        String name = null;
+        if (nameLength >= 0) {
+            byte[] nameBytes = new byte[nameLength];
+            buffer.get(nameBytes);
+            name = new String(nameBytes, StandardCharsets.UTF_8);
+        }
+        int reserved = buffer.remaining() >= Integer.BYTES ? buffer.getInt() : 0;
+
+        return Product.builder()
+                .id(id)
+                .name(name)
+                .quantity(quantity)
+                .reserved(reserved)
+                .revision(revision)
+                .build();
+    }
+
+    private static int crc(byte[] body) {
+
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        return (int) crc.getValue();
+    }
+
+    private record LogPosition(long segment, int offset) {
+    }
+
+    private record ReplayResult(int endOffset, long records) {
+    }
+}
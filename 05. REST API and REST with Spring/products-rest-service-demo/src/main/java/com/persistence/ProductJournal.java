@@ -0,0 +1,33 @@
+package com.persistence;
+
+import com.model.Product;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Трайно записване на промените по продуктите.
+// Всеки запис е пълното състояние на Product (с revision) - повторното прилагане е безопасно.
+public interface ProductJournal {
+
+    // Без persistence (unit тестове, или products.persistence.enabled=false)
+    ProductJournal NONE = new ProductJournal() {
+        @Override
+        public void recover(Consumer<Product> consumer) {
+        }
+
+        @Override
+        public void appendAll(Collection<Product> products) {
+        }
+    };
+
+    // Подава всички записани състояния (snapshot + опашката на лога) при стартиране
+    void recover(Consumer<Product> consumer);
+
+    // Връща след като записите са трайни (според sync режима)
+    void appendAll(Collection<Product> products);
+
+    default void append(Product product) {
+        appendAll(List.of(product));
+    }
+}
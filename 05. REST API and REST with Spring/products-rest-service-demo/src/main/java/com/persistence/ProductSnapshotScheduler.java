@@ -0,0 +1,43 @@
+package com.persistence;
+
+import com.service.ProductService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+// Compaction на лога - нов snapshot, само ако е имало промени след предишния
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "products.persistence.enabled", havingValue = "true", matchIfMissing = true)
+public class ProductSnapshotScheduler {
+
+    private final MappedProductLog productLog;
+    private final ProductService productService;
+    private long snapshotVersion = -1;
+
+    @Autowired
+    public ProductSnapshotScheduler(MappedProductLog productLog, ProductService productService) {
+        this.productLog = productLog;
+        this.productService = productService;
+    }
+
+    @Scheduled(fixedDelayString = "${products.persistence.snapshot-interval-ms:60000}")
+    public void writeSnapshot() {
+
+        long version = productService.getVersion();
+        if (version == snapshotVersion) {
+            return;
+        }
+
+        try {
+            productLog.writeSnapshot(productService::getAllProducts);
+            snapshotVersion = version;
+        } catch (IOException e) {
+            log.error("Unable to write products snapshot.", e);
+        }
+    }
+}
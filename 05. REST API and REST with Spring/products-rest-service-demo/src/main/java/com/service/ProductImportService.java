@@ -0,0 +1,140 @@
+package com.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.web.dto.BulkCreateResponse;
+import com.web.dto.BulkItemFailure;
+import com.web.dto.NewProductRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+// Bulk import без да се зарежда целия payload в паметта:
+// JsonParser чете елемент по елемент, валидните се натрупват в chunk и се записват заедно.
+// Работи и за JSON масив ([{...}, {...}]), и за NDJSON (по един обект на ред) - Jackson чете
+// поредица от root-level обекти, разделени с whitespace.
+@Slf4j
+@Service
+public class ProductImportService {
+
+    private static final int CHUNK_SIZE = 1000;
+    private static final int MAX_REPORTED_FAILURES = 1000;
+    private static final int MAX_NAME_LENGTH = 255;
+
+    private final ProductService productService;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public ProductImportService(ProductService productService, ObjectMapper objectMapper) {
+        this.productService = productService;
+        this.objectMapper = objectMapper;
+    }
+
+    public BulkCreateResponse importProducts(InputStream body) throws IOException {
+
+        ImportResult result = new ImportResult();
+        List<NewProductRequest> chunk = new ArrayList<>(CHUNK_SIZE);
+
+        try (JsonParser parser = objectMapper.createParser(body)) {
+
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_ARRAY) {
+                token = parser.nextToken();
+            }
+
+            long index = 0;
+            while (token != null && token != JsonToken.END_ARRAY) {
+
+                if (token != JsonToken.START_OBJECT) {
+                    result.fail(index++, "Expected a JSON object but found " + token + ".");
+                    parser.skipChildren();
+                    token = parser.nextToken();
+                    continue;
+                }
+
+                JsonStreamContext container = parser.getParsingContext().getParent();
+                try {
+                    NewProductRequest request = parser.readValueAs(NewProductRequest.class);
+                    String error = validate(request);
+                    if (error != null) {
+                        result.fail(index, error);
+                    } else {
+                        chunk.add(request);
+                    }
+                } catch (JsonProcessingException e) {
+                    // Грешен тип на поле (напр. "quantity": "abc") - прескачаме до края на този обект
+                    result.fail(index, e.getOriginalMessage());
+                    while (parser.getParsingContext() != container && parser.nextToken() != null) {
+                        // skip
+                    }
+                }
+                index++;
+
+                if (chunk.size() == CHUNK_SIZE) {
+                    result.created += productService.createNewProducts(chunk).size();
+                    chunk.clear();
+                }
+
+                token = parser.nextToken();
+            }
+        } catch (JsonProcessingException e) {
+            // Счупен JSON - не можем да продължим надолу по потока
+            result.aborted = true;
+            result.abortReason = e.getOriginalMessage();
+        } finally {
+            if (!chunk.isEmpty()) {
+                result.created += productService.createNewProducts(chunk).size();
+            }
+        }
+
+        log.info("Bulk import finished: created [{}], failed [{}], aborted [{}].", result.created, result.failed, result.aborted);
+
+        return BulkCreateResponse.builder()
+                .created(result.created)
+                .failed(result.failed)
+                .failures(result.failures)
+                .aborted(result.aborted)
+                .abortReason(result.abortReason)
+                .build();
+    }
+
+    private static String validate(NewProductRequest request) {
+
+        if (request.getName() == null || request.getName().isBlank()) {
+            return "Product name must not be blank.";
+        }
+        if (request.getName().length() > MAX_NAME_LENGTH) {
+            return "Product name must be at most %d characters.".formatted(MAX_NAME_LENGTH);
+        }
+        if (request.getQuantity() < 0) {
+            return "Product quantity must not be negative.";
+        }
+
+        return null;
+    }
+
+    private static final class ImportResult {
+
+        private long created;
+        private long failed;
+        private final List<BulkItemFailure> failures = new ArrayList<>();
+        private boolean aborted;
+        private String abortReason;
+
+        private void fail(long index, String message) {
+
+            failed++;
+            if (failures.size() < MAX_REPORTED_FAILURES) {
+                failures.add(new BulkItemFailure(index, message));
+            }
+        }
+    }
+}
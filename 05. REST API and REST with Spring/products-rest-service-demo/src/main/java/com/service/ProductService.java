@@ -1,37 +1,305 @@
 package com.service;
 
+import com.exception.InsufficientStockException;
+import com.exception.ProductNotFoundException;
 import com.model.Product;
+import com.model.ProductPage;
+import com.model.ProductSort;
+import com.persistence.ProductJournal;
 import com.web.dto.NewProductRequest;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.UUID;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class ProductService {
 
-    private final List<Product> products;
+    // Разделител между името и id-то в ключа на индекса - по-малък от всеки символ в името
+    private static final char NAME_KEY_SEPARATOR = '\u0000';
+    private static final UUID MIN_ID = new UUID(Long.MIN_VALUE, Long.MIN_VALUE);
+
+    // Основният store: id -> Product. Промените са CAS (replace(id, old, new)) върху immutable Product.
+    private final Map<UUID, Product> productsById;
+    // Вторичен индекс: "име (lowercase) + separator + id" -> id, сортиран за търсене по префикс.
+    // Името не се променя, текущото състояние се взима от productsById.
+    private final ConcurrentSkipListMap<String, UUID> productsByName;
+    // Вторичен индекс: (quantity, id) -> Product - за ?sort=quantity и ?minQuantity.
+    // При конкурентни промени може временно да има остарели записи - при четене се прескачат и трият.
+    private final ConcurrentSkipListMap<QuantityKey, Product> productsByQuantity;
+    // Расте след всяка промяна - кешираните snapshot-и (ProductSnapshotCache) сравняват версията
+    private final AtomicLong version;
+    // Всяка промяна се записва след успешния CAS/put - отговорът към клиента тръгва след като записът е траен
+    private final ProductJournal journal;
 
     public ProductService() {
-        this.products = new ArrayList<>();
+        this(ProductJournal.NONE);
+    }
+
+    @Autowired
+    public ProductService(ObjectProvider<ProductJournal> journal) {
+        this(journal.getIfAvailable(() -> ProductJournal.NONE));
+    }
+
+    ProductService(ProductJournal journal) {
+        this.productsById = new ConcurrentHashMap<>();
+        this.productsByName = new ConcurrentSkipListMap<>();
+        this.productsByQuantity = new ConcurrentSkipListMap<>();
+        this.version = new AtomicLong();
+        this.journal = journal;
+
+        journal.recover(this::restore);
+    }
+
+    public long getVersion() {
+        return version.get();
     }
 
+    // Immutable snapshot, подреден по име - промени след извикването не се отразяват в резултата
     public List<Product> getAllProducts() {
-        return products;
+        return resolve(productsByName.values());
+    }
+
+    public Optional<Product> getById(UUID id) {
+        return Optional.ofNullable(productsById.get(id));
+    }
+
+    // O(log n + брой резултати)
+    public List<Product> findByNamePrefix(String prefix) {
+
+        String from = normalize(prefix);
+        String to = from + Character.MAX_VALUE;
+
+        return resolve(productsByName.subMap(from, true, to, false).values());
+    }
+
+    // sort=quantity: O(log n) до началото (minQuantity) + O(page * size) прескачане + O(size).
+    // sort=name с minQuantity не се поддържа - индексът по име не знае количествата и филтрирането би било O(n).
+    public ProductPage getPage(ProductSort sort, Integer minQuantity, int page, int size) {
+
+        if (sort == ProductSort.NAME && minQuantity != null) {
+            throw new IllegalArgumentException("minQuantity is supported only with sort=quantity.");
+        }
+
+        Iterator<Product> products = switch (sort) {
+            case NAME -> productsByName.values().stream()
+                    .map(productsById::get)
+                    .filter(Objects::nonNull)
+                    .iterator();
+            case QUANTITY -> (minQuantity == null ? productsByQuantity : productsByQuantity.tailMap(new QuantityKey(minQuantity, MIN_ID), true))
+                    .entrySet().stream()
+                    .filter(this::isCurrent)
+                    .map(Map.Entry::getValue)
+                    .iterator();
+        };
+
+        long toSkip = (long) page * size;
+        List<Product> content = new ArrayList<>(size);
+        boolean hasNext = false;
+
+        while (products.hasNext()) {
+            Product product = products.next();
+            if (toSkip > 0) {
+                toSkip--;
+                continue;
+            }
+            if (content.size() == size) {
+                hasNext = true;
+                break;
+            }
+            content.add(product);
+        }
+
+        return new ProductPage(List.copyOf(content), page, size, hasNext);
     }
 
     public Product createNewProduct(NewProductRequest newProductRequest) {
 
+        Product product = addToStore(newProductRequest);
+        version.incrementAndGet();
+        journal.append(product);
+
+        return product;
+    }
+
+    // Bulk import - една нова версия (и един нов snapshot) за целия chunk
+    public List<Product> createNewProducts(List<NewProductRequest> newProductRequests) {
+
+        List<Product> products = new ArrayList<>(newProductRequests.size());
+        for (NewProductRequest newProductRequest : newProductRequests) {
+            products.add(addToStore(newProductRequest));
+        }
+        version.incrementAndGet();
+        journal.appendAll(products);
+
+        return products;
+    }
+
+    // PATCH /products/{id}/quantity - delta може да е положителна (доставка) или отрицателна (продажба).
+    // Количеството никога не става отрицателно - InsufficientStockException вместо oversell.
+    public Product adjustQuantity(UUID id, int delta) {
+        return update(id, delta, 0);
+    }
+
+    // Резервация: количеството се изважда и се отбелязва като задържано в същия запис на журнала.
+    // Задържаното е част от трайното състояние - след рестарт се знае колко е блокирано от резервации.
+    public Product reserve(UUID id, int quantity) {
+        return update(id, -quantity, quantity);
+    }
+
+    // Потвърдена резервация - количеството остава извадено, вече не е задържано
+    public Product confirmReserved(UUID id, int quantity) {
+        return update(id, 0, -quantity);
+    }
+
+    // Освободена или изтекла резервация - количеството се връща в наличност
+    public Product releaseReserved(UUID id, int quantity) {
+        return update(id, quantity, -quantity);
+    }
+
+    // Резервациите живеят само в паметта - при стартиране всичко задържано е от резервации отпреди рестарта,
+    // които никой вече не може да потвърди или освободи. Връща се в наличност, за да не изтече завинаги.
+    public long releaseAllReserved() {
+
+        long released = 0;
+        for (Product product : productsById.values()) {
+            if (product.getReserved() > 0) {
+                released += product.getReserved();
+                releaseReserved(product.getId(), product.getReserved());
+            }
+        }
+
+        return released;
+    }
+
+    // Lock-free: чете текущия Product, изчислява новия и го подменя с CAS; при конкурентна промяна опитва отново.
+    private Product update(UUID id, int quantityDelta, int reservedDelta) {
+
+        while (true) {
+            Product current = productsById.get(id);
+            if (current == null) {
+                throw new ProductNotFoundException("Product with id [%s] does not exist.".formatted(id));
+            }
+
+            long newQuantity = (long) current.getQuantity() + quantityDelta;
+            if (newQuantity < 0) {
+                throw new InsufficientStockException("Product [%s] has only %d items in stock.".formatted(id, current.getQuantity()));
+            }
+            if (newQuantity > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Product [%s] quantity would overflow.".formatted(id));
+            }
+
+            long newReserved = (long) current.getReserved() + reservedDelta;
+            if (newReserved < 0 || newReserved > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Product [%s] has only %d items reserved.".formatted(id, current.getReserved()));
+            }
+
+            Product updated = current.toBuilder()
+                    .quantity((int) newQuantity)
+                    .reserved((int) newReserved)
+                    .revision(current.getRevision() + 1)
+                    .build();
+
+            if (productsById.replace(id, current, updated)) {
+                reindexQuantity(current, updated);
+                version.incrementAndGet();
+                journal.append(updated);
+                return updated;
+            }
+        }
+    }
+
+    private Product addToStore(NewProductRequest newProductRequest) {
+
         Product product = Product.builder()
                 .id(UUID.randomUUID())
                 .name(newProductRequest.getName())
                 .quantity(newProductRequest.getQuantity())
                 .build();
 
-
-        products.add(product);
+        // Първо основния store, после индексите - който намери продукта по име, ще го намери и по id
+        productsById.put(product.getId(), product);
+        productsByName.put(nameKey(product), product.getId());
+        productsByQuantity.put(QuantityKey.of(product), product);
 
         return product;
     }
+
+    // Само при стартиране (еднонишково) - snapshot-ът и логът може да съдържат няколко състояния на един продукт
+    private void restore(Product product) {
+
+        Product existing = productsById.get(product.getId());
+        if (existing != null && existing.getRevision() >= product.getRevision()) {
+            return;
+        }
+
+        productsById.put(product.getId(), product);
+        if (existing == null) {
+            productsByName.put(nameKey(product), product.getId());
+        } else {
+            productsByQuantity.remove(QuantityKey.of(existing), existing);
+        }
+        productsByQuantity.put(QuantityKey.of(product), product);
+        version.incrementAndGet();
+    }
+
+    // Премахва само точно старото състояние и не позволява по-старо състояние да презапише по-ново
+    // (две нишки може да обновяват индекса в различен ред от този на CAS-а)
+    private void reindexQuantity(Product previous, Product updated) {
+
+        productsByQuantity.remove(QuantityKey.of(previous), previous);
+        productsByQuantity.merge(QuantityKey.of(updated), updated,
+                (existing, candidate) -> candidate.getRevision() > existing.getRevision() ? candidate : existing);
+    }
+
+    private boolean isCurrent(Map.Entry<QuantityKey, Product> entry) {
+
+        Product current = productsById.get(entry.getKey().id());
+        if (current != null && current.getRevision() == entry.getValue().getRevision()) {
+            return true;
+        }
+
+        productsByQuantity.remove(entry.getKey(), entry.getValue());
+        return false;
+    }
+
+    private List<Product> resolve(Collection<UUID> ids) {
+
+        // Без ids.size() - за skip list е O(n)
+        List<Product> products = new ArrayList<>();
+        for (UUID id : ids) {
+            Product product = productsById.get(id);
+            if (product != null) {
+                products.add(product);
+            }
+        }
+
+        return Collections.unmodifiableList(products);
+    }
+
+    private static String nameKey(Product product) {
+        return normalize(product.getName()) + NAME_KEY_SEPARATOR + product.getId();
+    }
+
+    private static String normalize(String name) {
+        return name == null ? "" : name.toLowerCase(Locale.ROOT);
+    }
+
+    private record QuantityKey(int quantity, UUID id) implements Comparable<QuantityKey> {
+
+        static QuantityKey of(Product product) {
+            return new QuantityKey(product.getQuantity(), product.getId());
+        }
+
+        @Override
+        public int compareTo(QuantityKey other) {
+
+            int byQuantity = Integer.compare(quantity, other.quantity);
+            return byQuantity != 0 ? byQuantity : id.compareTo(other.id);
+        }
+    }
 }
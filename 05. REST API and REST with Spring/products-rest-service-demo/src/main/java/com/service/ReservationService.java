@@ -0,0 +1,107 @@
+package com.service;
+
+import com.exception.ReservationNotFoundException;
+import com.model.Reservation;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Hold семантика върху ProductService:
+// reserve - количеството се изважда веднага (никой друг не може да го продаде),
+// confirm - остава извадено, release или изтичане на TTL - връща се обратно.
+// Резервациите са само в паметта, а задържаното количество е в журнала на продуктите -
+// при стартиране задържаното от резервациите отпреди рестарта се връща в наличност.
+@Slf4j
+@Service
+public class ReservationService {
+
+    private static final Duration MAX_TTL = Duration.ofHours(1);
+
+    private final ProductService productService;
+    private final Map<UUID, Reservation> reservations = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ReservationService(ProductService productService) {
+
+        this.productService = productService;
+
+        long released = productService.releaseAllReserved();
+        if (released > 0) {
+            log.info("[{}] items held by reservations from before the restart returned to stock.", released);
+        }
+    }
+
+    public Reservation reserve(UUID productId, int quantity, Duration ttl) {
+
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Reserved quantity must be positive.");
+        }
+        if (ttl.isNegative() || ttl.isZero() || ttl.compareTo(MAX_TTL) > 0) {
+            throw new IllegalArgumentException("Reservation TTL must be between 1 second and %d minutes.".formatted(MAX_TTL.toMinutes()));
+        }
+
+        // Хвърля InsufficientStockException, ако няма достатъчно - тогава резервация не се създава
+        productService.reserve(productId, quantity);
+
+        Reservation reservation = new Reservation(UUID.randomUUID(), productId, quantity, Instant.now().plus(ttl));
+        reservations.put(reservation.id(), reservation);
+
+        return reservation;
+    }
+
+    // remove(...) е атомарно - confirm, release и изтичането не могат да обработят една резервация два пъти
+    public Reservation confirm(UUID reservationId) {
+
+        Reservation reservation = reservations.remove(reservationId);
+        if (reservation == null) {
+            throw new ReservationNotFoundException("Reservation with id [%s] does not exist or has expired.".formatted(reservationId));
+        }
+
+        productService.confirmReserved(reservation.productId(), reservation.quantity());
+
+        return reservation;
+    }
+
+    public Reservation release(UUID reservationId) {
+
+        Reservation reservation = reservations.remove(reservationId);
+        if (reservation == null) {
+            throw new ReservationNotFoundException("Reservation with id [%s] does not exist or has expired.".formatted(reservationId));
+        }
+
+        productService.releaseReserved(reservation.productId(), reservation.quantity());
+
+        return reservation;
+    }
+
+    @Scheduled(fixedDelay = 5000)
+    public void releaseExpired() {
+
+        Instant now = Instant.now();
+
+        for (Reservation reservation : reservations.values()) {
+            if (reservation.expiresAt().isBefore(now) && reservations.remove(reservation.id(), reservation)) {
+                releaseExpired(reservation);
+            }
+        }
+    }
+
+    // Грешка при една резервация не спира останалите - тя се връща в map-а и се опитва отново при следващото минаване
+    private void releaseExpired(Reservation reservation) {
+
+        try {
+            productService.releaseReserved(reservation.productId(), reservation.quantity());
+            log.info("Reservation [{}] for product [{}] expired, [{}] items returned to stock.", reservation.id(), reservation.productId(), reservation.quantity());
+        } catch (RuntimeException e) {
+            reservations.put(reservation.id(), reservation);
+            log.error("Reservation [{}] for product [{}] expired, but its [{}] items could not be returned to stock.", reservation.id(), reservation.productId(), reservation.quantity(), e);
+        }
+    }
+}
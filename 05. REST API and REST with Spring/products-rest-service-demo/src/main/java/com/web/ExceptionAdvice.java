@@ -0,0 +1,37 @@
+package com.web;
+
+import com.exception.InsufficientStockException;
+import com.exception.ProductNotFoundException;
+import com.exception.ReservationNotFoundException;
+import com.web.dto.ErrorResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+@RestControllerAdvice
+public class ExceptionAdvice {
+
+    @ExceptionHandler({ProductNotFoundException.class, ReservationNotFoundException.class})
+    public ResponseEntity<ErrorResponse> handleNotFound(RuntimeException exception) {
+        return error(HttpStatus.NOT_FOUND, exception);
+    }
+
+    // Няма достатъчно наличност - заявката е валидна, но противоречи на текущото състояние
+    @ExceptionHandler(InsufficientStockException.class)
+    public ResponseEntity<ErrorResponse> handleInsufficientStock(InsufficientStockException exception) {
+        return error(HttpStatus.CONFLICT, exception);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ErrorResponse> handleIllegalArgument(IllegalArgumentException exception) {
+        return error(HttpStatus.BAD_REQUEST, exception);
+    }
+
+    private static ResponseEntity<ErrorResponse> error(HttpStatus status, RuntimeException exception) {
+
+        return ResponseEntity
+                .status(status)
+                .body(new ErrorResponse(status.value(), exception.getMessage()));
+    }
+}
@@ -1,39 +1,130 @@
 package com.web;
 
 import com.model.Product;
+import com.model.ProductPage;
+import com.model.ProductSort;
+import com.model.Reservation;
+import com.service.ProductImportService;
 import com.service.ProductService;
+import com.service.ReservationService;
+import com.web.dto.BulkCreateResponse;
 import com.web.dto.NewProductRequest;
+import com.web.dto.NewReservationRequest;
+import com.web.dto.ProductPageResponse;
 import com.web.dto.ProductResponse;
+import com.web.dto.QuantityAdjustmentRequest;
+import com.web.dto.ReservationResponse;
 import com.web.mapper.DtoMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
 import java.util.List;
+import java.util.UUID;
 
 @RestController
 @RequestMapping(Paths.API_V1_BASE_PATH + "products")
 public class ProductController {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 1000;
+
     private final ProductService productService;
+    private final ProductSnapshotCache productSnapshotCache;
+    private final ProductImportService productImportService;
+    private final ReservationService reservationService;
 
     @Autowired
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ProductSnapshotCache productSnapshotCache,
+                             ProductImportService productImportService, ReservationService reservationService) {
         this.productService = productService;
+        this.productSnapshotCache = productSnapshotCache;
+        this.productImportService = productImportService;
+        this.reservationService = reservationService;
     }
 
+    // Без параметри: готов JSON от ProductSnapshotCache + strong ETag.
+    // При If-None-Match със същия ETag Spring (HttpEntityMethodProcessor) сам връща 304 Not Modified без body.
+    // С ?page, ?size, ?sort=name|quantity или ?minQuantity: страница от сортираните индекси в ProductService.
+    // minQuantity върви само с sort=quantity (той е и подразбиращия се sort, ако има minQuantity).
     @GetMapping
-    public ResponseEntity<List<ProductResponse>> getAllProducts() {
+    public ResponseEntity<?> getAllProducts(@RequestParam(name = "page", required = false) Integer page,
+                                            @RequestParam(name = "size", required = false) Integer size,
+                                            @RequestParam(name = "sort", required = false) String sort,
+                                            @RequestParam(name = "minQuantity", required = false) Integer minQuantity) {
+
+        if (page != null || size != null || sort != null || minQuantity != null) {
+            return getProductsPage(page, size, sort, minQuantity);
+        }
+
+        ProductSnapshotCache.ProductSnapshot snapshot = productSnapshotCache.getSnapshot();
+
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .eTag(snapshot.eTag())
+                .body(snapshot.json());
+    }
+
+    private ResponseEntity<?> getProductsPage(Integer page, Integer size, String sort, Integer minQuantity) {
+
+        int pageNumber = page == null ? 0 : page;
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : size;
+        if (pageNumber < 0 || pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().body("page must be >= 0 and size between 1 and %d.".formatted(MAX_PAGE_SIZE));
+        }
+
+        ProductSort productSort;
+        try {
+            productSort = sort == null && minQuantity != null ? ProductSort.QUANTITY : ProductSort.from(sort);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("sort must be one of: name, quantity.");
+        }
+        if (productSort == ProductSort.NAME && minQuantity != null) {
+            return ResponseEntity.badRequest().body("minQuantity is supported only with sort=quantity.");
+        }
+
+        ProductPage productPage = productService.getPage(productSort, minQuantity, pageNumber, pageSize);
+
+        ProductPageResponse response = ProductPageResponse.builder()
+                .content(productPage.content().stream().map(DtoMapper::toProductResponse).toList())
+                .page(productPage.page())
+                .size(productPage.size())
+                .hasNext(productPage.hasNext())
+                .build();
 
-        List<ProductResponse> list = productService.getAllProducts()
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(response);
+    }
+
+    // GET /api/v1/products?namePrefix=app - търсене по начало на името
+    @GetMapping(params = "namePrefix")
+    public ResponseEntity<List<ProductResponse>> getProductsByNamePrefix(@RequestParam(name = "namePrefix") String namePrefix) {
+
+        List<ProductResponse> list = productService.findByNamePrefix(namePrefix)
                 .stream()
                 .map(DtoMapper::toProductResponse)
                 .toList();
 
         return ResponseEntity
                 .status(HttpStatus.OK)
-                 .body(list);
+                .body(list);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ProductResponse> getProductById(@PathVariable UUID id) {
+
+        return productService.getById(id)
+                .map(product -> ResponseEntity.ok(DtoMapper.toProductResponse(product)))
+                .orElse(ResponseEntity.notFound().build());
     }
 
     @PostMapping
@@ -50,4 +141,57 @@ public class ProductController {
                 .header("Application-name", "Spring Boot Project")
                 .body(productResponse);
     }
+
+    // POST /api/v1/products/bulk - JSON масив или NDJSON (application/x-ndjson).
+    // Body-то се чете като поток (InputStream), не се десериализира наведнъж.
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BulkCreateResponse> createNewProductsInBulk(InputStream body) throws IOException {
+
+        BulkCreateResponse response = productImportService.importProducts(body);
+
+        return ResponseEntity
+                .status(response.getCreated() > 0 ? HttpStatus.CREATED : HttpStatus.BAD_REQUEST)
+                .body(response);
+    }
+
+    // PATCH /api/v1/products/{id}/quantity {"delta": -3}
+    // 409 Conflict, ако наличността не стига - количеството никога не става отрицателно
+    @PatchMapping("/{id}/quantity")
+    public ResponseEntity<ProductResponse> adjustQuantity(@PathVariable UUID id, @RequestBody QuantityAdjustmentRequest quantityAdjustmentRequest) {
+
+        Product product = productService.adjustQuantity(id, quantityAdjustmentRequest.getDelta());
+
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(DtoMapper.toProductResponse(product));
+    }
+
+    // POST /api/v1/products/{id}/reservations {"quantity": 2, "ttlSeconds": 300}
+    @PostMapping("/{id}/reservations")
+    public ResponseEntity<ReservationResponse> reserve(@PathVariable UUID id, @RequestBody NewReservationRequest newReservationRequest) {
+
+        Reservation reservation = reservationService.reserve(id, newReservationRequest.getQuantity(), Duration.ofSeconds(newReservationRequest.getTtlSeconds()));
+
+        return ResponseEntity
+                .status(HttpStatus.CREATED)
+                .body(DtoMapper.toReservationResponse(reservation));
+    }
+
+    @PostMapping("/reservations/{reservationId}/confirm")
+    public ResponseEntity<ReservationResponse> confirmReservation(@PathVariable UUID reservationId) {
+
+        Reservation reservation = reservationService.confirm(reservationId);
+
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(DtoMapper.toReservationResponse(reservation));
+    }
+
+    @DeleteMapping("/reservations/{reservationId}")
+    public ResponseEntity<Void> releaseReservation(@PathVariable UUID reservationId) {
+
+        reservationService.release(reservationId);
+
+        return ResponseEntity.noContent().build();
+    }
 }
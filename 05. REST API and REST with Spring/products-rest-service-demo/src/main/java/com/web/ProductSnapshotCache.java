@@ -0,0 +1,76 @@
+package com.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.service.ProductService;
+import com.web.dto.ProductResponse;
+import com.web.mapper.DtoMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Готовия JSON за GET /api/v1/products. Пресъздава се само когато ProductService.getVersion() се промени -
+// при четене няма mapping и сериализация, само връщане на същия byte[].
+@Component
+public class ProductSnapshotCache {
+
+    private final ProductService productService;
+    private final ObjectMapper objectMapper;
+    private final AtomicReference<ProductSnapshot> current = new AtomicReference<>(new ProductSnapshot(-1, null, null));
+
+    @Autowired
+    public ProductSnapshotCache(ProductService productService, ObjectMapper objectMapper) {
+        this.productService = productService;
+        this.objectMapper = objectMapper;
+    }
+
+    public ProductSnapshot getSnapshot() {
+
+        ProductSnapshot snapshot = current.get();
+        long version = productService.getVersion();
+
+        if (snapshot.version() == version) {
+            return snapshot;
+        }
+
+        // Версията се чете преди продуктите - snapshot с версия v съдържа поне всички промени до v
+        ProductSnapshot rebuilt = build(version);
+        current.accumulateAndGet(rebuilt, (existing, candidate) -> candidate.version() > existing.version() ? candidate : existing);
+
+        return rebuilt;
+    }
+
+    private ProductSnapshot build(long version) {
+
+        List<ProductResponse> products = productService.getAllProducts()
+                .stream()
+                .map(DtoMapper::toProductResponse)
+                .toList();
+
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(products);
+            return new ProductSnapshot(version, json, strongETag(json));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize products snapshot.", e);
+        }
+    }
+
+    // По съдържанието, а не по версията - версията започва от 0 след рестарт
+    private static String strongETag(byte[] json) {
+
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(json);
+            return "\"" + HexFormat.of().formatHex(hash, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record ProductSnapshot(long version, byte[] json, String eTag) {
+    }
+}
@@ -0,0 +1,19 @@
+package com.web.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class BulkCreateResponse {
+
+    private long created;
+    private long failed;
+    // Първите N грешки - при голям import не връщаме всичките
+    private List<BulkItemFailure> failures;
+    // true, ако payload-а е невалиден JSON и обработката е спряла - създадените дотук остават
+    private boolean aborted;
+    private String abortReason;
+}
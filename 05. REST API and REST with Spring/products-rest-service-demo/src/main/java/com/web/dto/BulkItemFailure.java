@@ -0,0 +1,13 @@
+package com.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class BulkItemFailure {
+
+    // Пореден номер на елемента в заявката (от 0)
+    private long index;
+    private String message;
+}
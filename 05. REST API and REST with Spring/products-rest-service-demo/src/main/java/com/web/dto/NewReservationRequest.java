@@ -0,0 +1,10 @@
+package com.web.dto;
+
+import lombok.Data;
+
+@Data
+public class NewReservationRequest {
+
+    private int quantity;
+    private long ttlSeconds = 300;
+}
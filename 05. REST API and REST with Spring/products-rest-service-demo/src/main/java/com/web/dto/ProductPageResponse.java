@@ -0,0 +1,16 @@
+package com.web.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class ProductPageResponse {
+
+    private List<ProductResponse> content;
+    private int page;
+    private int size;
+    private boolean hasNext;
+}
@@ -3,10 +3,13 @@ package com.web.dto;
 import lombok.Builder;
 import lombok.Data;
 
+import java.util.UUID;
+
 @Data
 @Builder
 public class ProductResponse {
 
+    private UUID id;
     private String name;
     private int quantity;
 }
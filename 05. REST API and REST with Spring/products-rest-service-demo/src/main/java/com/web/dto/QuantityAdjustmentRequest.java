@@ -0,0 +1,10 @@
+package com.web.dto;
+
+import lombok.Data;
+
+@Data
+public class QuantityAdjustmentRequest {
+
+    // +10 - доставка, -3 - продажба
+    private int delta;
+}
@@ -0,0 +1,17 @@
+package com.web.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@Builder
+public class ReservationResponse {
+
+    private UUID id;
+    private UUID productId;
+    private int quantity;
+    private Instant expiresAt;
+}
@@ -1,7 +1,9 @@
 package com.web.mapper;
 
 import com.model.Product;
+import com.model.Reservation;
 import com.web.dto.ProductResponse;
+import com.web.dto.ReservationResponse;
 import lombok.experimental.UtilityClass;
 
 @UtilityClass
@@ -9,8 +11,18 @@ public class DtoMapper {
 
     public static ProductResponse toProductResponse(Product product) {
         return ProductResponse.builder()
+                .id(product.getId())
                 .name(product.getName())
                 .quantity(product.getQuantity())
                 .build();
     }
+
+    public static ReservationResponse toReservationResponse(Reservation reservation) {
+        return ReservationResponse.builder()
+                .id(reservation.id())
+                .productId(reservation.productId())
+                .quantity(reservation.quantity())
+                .expiresAt(reservation.expiresAt())
+                .build();
+    }
 }
@@ -0,0 +1,158 @@
+package com.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.model.Product;
+import com.web.ProductController;
+import com.web.ProductSnapshotCache;
+import com.web.dto.BulkCreateResponse;
+import com.web.dto.BulkItemFailure;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class ProductImportServiceUTest {
+
+    // Същите настройки като ObjectMapper-а на Spring Boot (непознатите полета не са грешка)
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private ProductService productService;
+    private ProductImportService productImportService;
+
+    @BeforeEach
+    void setUp() {
+
+        productService = spy(new ProductService());
+        productImportService = new ProductImportService(productService, objectMapper);
+    }
+
+    @Test
+    void givenJsonArrayWithInvalidItems_whenImported_thenValidAreCreatedAndInvalidAreReportedByIndex() throws IOException {
+
+        // Given - грешен тип с вложени структури след него, не-обект, празно име, грешен тип на обект
+        String body = """
+                [
+                  {"name": "apple", "quantity": 5},
+                  {"quantity": "abc", "tags": {"colors": ["red", {"dark": true}]}, "name": "broken"},
+                  42,
+                  [1, [2, 3]],
+                  {"name": "", "quantity": 1},
+                  {"name": {"first": "pear"}, "quantity": 1},
+                  {"name": "banana", "quantity": 7}
+                ]
+                """;
+
+        // When
+        BulkCreateResponse response = productImportService.importProducts(stream(body));
+
+        // Then
+        assertEquals(2, response.getCreated());
+        assertEquals(5, response.getFailed());
+        assertFalse(response.isAborted());
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), response.getFailures().stream().map(BulkItemFailure::getIndex).toList());
+        assertEquals(List.of("apple", "banana"), productService.getAllProducts().stream().map(Product::getName).toList());
+    }
+
+    @Test
+    void givenNdjsonWithInvalidLines_whenImported_thenEveryLineIsAnItem() throws IOException {
+
+        // Given
+        String body = """
+                {"name": "apple", "quantity": 5}
+                {"name": "broken", "quantity": "abc", "extra": [{"a": 1}]}
+                "not an object"
+                {"name": "cherry", "quantity": -1}
+                {"name": "banana", "quantity": 7}
+                """;
+
+        // When
+        BulkCreateResponse response = productImportService.importProducts(stream(body));
+
+        // Then
+        assertEquals(2, response.getCreated());
+        assertEquals(3, response.getFailed());
+        assertFalse(response.isAborted());
+        assertEquals(List.of(1L, 2L, 3L), response.getFailures().stream().map(BulkItemFailure::getIndex).toList());
+        assertEquals(List.of("apple", "banana"), productService.getAllProducts().stream().map(Product::getName).toList());
+    }
+
+    @Test
+    void givenMalformedJsonArray_whenImported_thenAbortsAndKeepsTheItemsBeforeIt() throws IOException {
+
+        // Given - липсва запетая между елементите
+        String body = """
+                [{"name": "apple", "quantity": 5} {"name": "banana", "quantity": 7}]
+                """;
+
+        // When
+        BulkCreateResponse response = productImportService.importProducts(stream(body));
+
+        // Then - непълният chunk се записва във finally
+        assertTrue(response.isAborted());
+        assertNotNull(response.getAbortReason());
+        assertEquals(1, response.getCreated());
+        assertEquals(List.of("apple"), productService.getAllProducts().stream().map(Product::getName).toList());
+    }
+
+    @Test
+    void givenMalformedNdjsonAfterAFullChunk_whenImported_thenFullAndPartialChunksAreCreated() throws IOException {
+
+        // Given - 1000 (цял chunk) + 5 валидни, после ред, който не е JSON
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 1005; i++) {
+            body.append("{\"name\": \"product-%d\", \"quantity\": 1}\n".formatted(i));
+        }
+        body.append("not json\n{\"name\": \"after\", \"quantity\": 1}\n");
+
+        // When
+        BulkCreateResponse response = productImportService.importProducts(stream(body.toString()));
+
+        // Then
+        assertTrue(response.isAborted());
+        assertEquals(1005, response.getCreated());
+        assertEquals(0, response.getFailed());
+        assertEquals(1005, productService.getAllProducts().size());
+        verify(productService, times(2)).createNewProducts(anyList());
+    }
+
+    @Test
+    void givenBulkRequest_whenSomethingIsCreated_thenCreatedOtherwiseBadRequest() throws IOException {
+
+        // Given
+        ProductController productController = new ProductController(productService, new ProductSnapshotCache(productService, objectMapper),
+                productImportService, new ReservationService(productService));
+
+        // When
+        ResponseEntity<BulkCreateResponse> partlyValid = productController.createNewProductsInBulk(stream("""
+                [{"name": "apple", "quantity": 5}, {"name": "", "quantity": 1}]
+                """));
+        ResponseEntity<BulkCreateResponse> allInvalid = productController.createNewProductsInBulk(stream("""
+                [{"name": "", "quantity": 1}, 42]
+                """));
+        ResponseEntity<BulkCreateResponse> malformed = productController.createNewProductsInBulk(stream("[{\"name\": "));
+
+        // Then
+        assertEquals(HttpStatus.CREATED, partlyValid.getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, allInvalid.getStatusCode());
+        assertEquals(2, allInvalid.getBody().getFailed());
+        assertEquals(HttpStatus.BAD_REQUEST, malformed.getStatusCode());
+        assertTrue(malformed.getBody().isAborted());
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
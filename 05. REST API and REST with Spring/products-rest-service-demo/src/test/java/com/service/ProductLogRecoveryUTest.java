@@ -0,0 +1,194 @@
+package com.service;
+
+import com.model.Product;
+import com.model.ProductSort;
+import com.persistence.MappedProductLog;
+import com.web.dto.NewProductRequest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ProductLogRecoveryUTest {
+
+    // Малки сегменти - тестовете минават през няколко roll-а
+    private static final int SEGMENT_SIZE = 4096;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void givenLoggedChanges_whenRestarted_thenStateIsReplayed() throws IOException {
+
+        // Given
+        MappedProductLog productLog = newLog();
+        ProductService productService = new ProductService(productLog);
+        List<UUID> ids = createProducts(productService, 200);
+        productService.adjustQuantity(ids.get(0), -5);
+        productService.adjustQuantity(ids.get(0), 2);
+        List<Product> expected = productService.getAllProducts();
+        productLog.destroy();
+
+        // When
+        MappedProductLog reopened = newLog();
+        ProductService recovered = new ProductService(reopened);
+
+        // Then
+        assertEquals(expected, recovered.getAllProducts());
+        assertEquals(7, recovered.getById(ids.get(0)).orElseThrow().getQuantity());
+        assertEquals(2, recovered.getById(ids.get(0)).orElseThrow().getRevision());
+        assertEquals(ids.get(0), recovered.getPage(ProductSort.QUANTITY, null, 0, 1).content().get(0).getId());
+        reopened.destroy();
+    }
+
+    @Test
+    void givenSnapshotAndTail_whenRestarted_thenOldSegmentsAreDroppedAndTailIsApplied() throws IOException {
+
+        // Given
+        MappedProductLog productLog = newLog();
+        ProductService productService = new ProductService(productLog);
+        List<UUID> ids = createProducts(productService, 200);
+        productLog.writeSnapshot(productService::getAllProducts);
+        productService.adjustQuantity(ids.get(1), 90);
+        List<Product> expected = productService.getAllProducts();
+        productLog.destroy();
+
+        // When
+        MappedProductLog reopened = newLog();
+        ProductService recovered = new ProductService(reopened);
+
+        // Then
+        assertEquals(expected, recovered.getAllProducts());
+        assertEquals(100, recovered.getById(ids.get(1)).orElseThrow().getQuantity());
+        try (var files = Files.list(directory)) {
+            assertTrue(files.filter(path -> path.getFileName().toString().startsWith("segment-")).count() <= 2);
+        }
+        reopened.destroy();
+    }
+
+    @Test
+    void givenProductCreatedWhileSnapshotIsCollected_whenRestarted_thenProductIsRecovered() throws IOException {
+
+        // Given
+        MappedProductLog productLog = newLog();
+        ProductService productService = new ProductService(productLog);
+        createProducts(productService, 10);
+        List<UUID> createdDuringSnapshot = new ArrayList<>();
+        // Продуктът влиза в лога след като списъкът за snapshot-а вече е събран
+        productLog.writeSnapshot(() -> {
+            List<Product> products = productService.getAllProducts();
+            createdDuringSnapshot.addAll(createProducts(productService, 1));
+            return products;
+        });
+        productLog.destroy();
+
+        // When
+        MappedProductLog reopened = newLog();
+        ProductService recovered = new ProductService(reopened);
+
+        // Then
+        assertEquals(11, recovered.getAllProducts().size());
+        assertTrue(recovered.getById(createdDuringSnapshot.get(0)).isPresent());
+        reopened.destroy();
+    }
+
+    @Test
+    void givenTornRecordAtTheEnd_whenRestarted_thenEverythingBeforeItIsRecovered() throws IOException {
+
+        // Given
+        MappedProductLog productLog = newLog();
+        ProductService productService = new ProductService(productLog);
+        UUID id = createProducts(productService, 1).get(0);
+        productService.adjustQuantity(id, 1);
+        productLog.destroy();
+        Path segment = directory.resolve("segment-%016d.log".formatted(0));
+        long endOfLog = findEndOfLog(segment);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            // Дължина без body - все едно процесът е спрял по средата на записа
+            channel.write(ByteBuffer.allocate(8).putInt(64).putInt(12345).flip(), endOfLog);
+        }
+
+        // When
+        MappedProductLog reopened = newLog();
+        ProductService recovered = new ProductService(reopened);
+        recovered.adjustQuantity(id, 1);
+        reopened.destroy();
+        ProductService afterSecondRestart = new ProductService(newLog());
+
+        // Then
+        assertEquals(12, afterSecondRestart.getById(id).orElseThrow().getQuantity());
+    }
+
+    @Test
+    void givenOpenReservationBeforeRestart_whenRestarted_thenHeldStockIsReturnedAndConfirmedStaysDeducted() throws IOException {
+
+        // Given - една потвърдена и една отворена резервация в момента на спирането
+        MappedProductLog productLog = newLog();
+        ProductService productService = new ProductService(productLog);
+        ReservationService reservationService = new ReservationService(productService);
+        UUID id = createProducts(productService, 1).get(0);
+        reservationService.confirm(reservationService.reserve(id, 3, Duration.ofMinutes(1)).id());
+        reservationService.reserve(id, 4, Duration.ofMinutes(1));
+        assertEquals(3, productService.getById(id).orElseThrow().getQuantity());
+        productLog.destroy();
+
+        // When
+        MappedProductLog reopened = newLog();
+        ProductService recovered = new ProductService(reopened);
+        assertEquals(4, recovered.getById(id).orElseThrow().getReserved());
+        new ReservationService(recovered);
+        reopened.destroy();
+        ProductService afterSecondRestart = new ProductService(newLog());
+
+        // Then - връщането също е в журнала
+        Product product = afterSecondRestart.getById(id).orElseThrow();
+        assertEquals(7, product.getQuantity());
+        assertEquals(0, product.getReserved());
+    }
+
+    private MappedProductLog newLog() throws IOException {
+        return new MappedProductLog(directory.toString(), SEGMENT_SIZE, 1, MappedProductLog.SyncMode.GROUP);
+    }
+
+    private static List<UUID> createProducts(ProductService productService, int count) {
+
+        List<UUID> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            NewProductRequest request = new NewProductRequest();
+            request.setName("Product " + i);
+            request.setQuantity(10);
+            ids.add(productService.createNewProduct(request).getId());
+        }
+
+        return ids;
+    }
+
+    private static long findEndOfLog(Path segment) throws IOException {
+
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(4);
+            long offset = 0;
+            while (true) {
+                header.clear();
+                channel.read(header, offset);
+                int length = header.flip().getInt();
+                if (length == 0) {
+                    return offset;
+                }
+                offset += 8 + length;
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.service;
+
+import com.exception.InsufficientStockException;
+import com.model.Product;
+import com.model.ProductSort;
+import com.model.Reservation;
+import com.web.dto.NewProductRequest;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ProductQuantityConcurrencyUTest {
+
+    private static final int THREADS = 128;
+    private static final int ATTEMPTS_PER_THREAD = 20;
+    private static final int STOCK = 1000;
+
+    @Test
+    void given128ConcurrentDecrementers_whenStockRunsOut_thenNothingIsOversold() throws Exception {
+
+        // Given - 128 * 20 = 2560 attempts for 1000 items
+        ProductService productService = new ProductService();
+        UUID productId = createProduct(productService);
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        // When
+        runConcurrently(() -> {
+            for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                try {
+                    productService.adjustQuantity(productId, -1);
+                    sold.incrementAndGet();
+                } catch (InsufficientStockException e) {
+                    rejected.incrementAndGet();
+                }
+            }
+        });
+
+        // Then
+        Product product = productService.getById(productId).orElseThrow();
+        assertEquals(STOCK, sold.get());
+        assertEquals(THREADS * ATTEMPTS_PER_THREAD - STOCK, rejected.get());
+        assertEquals(0, product.getQuantity());
+        assertEquals(STOCK, product.getRevision());
+        assertEquals(1, productService.getPage(ProductSort.QUANTITY, null, 0, 10).content().size());
+    }
+
+    @Test
+    void givenConcurrentReservations_whenHalfAreReleased_thenOnlyConfirmedAreDeducted() throws Exception {
+
+        // Given
+        ProductService productService = new ProductService();
+        ReservationService reservationService = new ReservationService(productService);
+        UUID productId = createProduct(productService);
+        AtomicInteger confirmed = new AtomicInteger();
+
+        // When - every thread reserves 2 items; even attempts confirm, odd attempts release
+        runConcurrently(() -> {
+            for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                Reservation reservation;
+                try {
+                    reservation = reservationService.reserve(productId, 2, Duration.ofMinutes(1));
+                } catch (InsufficientStockException e) {
+                    continue;
+                }
+
+                if (i % 2 == 0) {
+                    reservationService.confirm(reservation.id());
+                    confirmed.incrementAndGet();
+                } else {
+                    reservationService.release(reservation.id());
+                }
+            }
+        });
+
+        // Then
+        int quantity = productService.getById(productId).orElseThrow().getQuantity();
+        assertEquals(STOCK - 2 * confirmed.get(), quantity);
+        assertTrue(quantity >= 0);
+    }
+
+    private static UUID createProduct(ProductService productService) {
+
+        NewProductRequest request = new NewProductRequest();
+        request.setName("Limited edition");
+        request.setQuantity(STOCK);
+
+        return productService.createNewProduct(request).getId();
+    }
+
+    private static void runConcurrently(Runnable task) throws Exception {
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                task.run();
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,17 @@
+package app.persistence;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Замества @GeneratedValue(strategy = GenerationType.UUID) - id-то е UUID версия 7 (времево подредено),
+// генерирано в приложението преди INSERT-а.
+@IdGeneratorType(UuidV7Generator.class)
+@Target({ElementType.FIELD, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface UuidV7 {
+
+}
@@ -0,0 +1,27 @@
+package app.scheduler;
+
+import app.subscription.service.SubscriptionRenewalService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class SubscriptionRenewalScheduler {
+
+    private final SubscriptionRenewalService subscriptionRenewalService;
+
+    @Autowired
+    public SubscriptionRenewalScheduler(SubscriptionRenewalService subscriptionRenewalService) {
+        this.subscriptionRenewalService = subscriptionRenewalService;
+    }
+
+    // Всяка нощ в 02:00
+    @Scheduled(cron = "${subscriptions.renewal.cron:0 0 2 * * *}")
+    public void renewSubscriptions() {
+
+        log.info("Starting nightly subscription renewal.");
+        subscriptionRenewalService.renewExpiringSubscriptions();
+    }
+}
@@ -0,0 +1,38 @@
+package app.subscription.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Пази докъде е стигнал нощния renewal job, за да може да продължи след рестарт
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RenewalCheckpoint {
+
+    @Id
+    private String jobName;
+
+    // Всички абонаменти, изтекли преди този момент, влизат в текущия run
+    @Column(nullable = false)
+    private LocalDateTime cutoff;
+
+    // Последното обработено id (keyset pagination)
+    private UUID lastProcessedId;
+
+    private long processedCount;
+
+    private boolean completed;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedOn;
+}
@@ -0,0 +1,20 @@
+package app.subscription.repository;
+
+import app.subscription.model.RenewalCheckpoint;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface RenewalCheckpointRepository extends JpaRepository<RenewalCheckpoint, String> {
+
+    // SELECT ... FOR UPDATE - два паралелни run-а (две инстанции) не могат да обработят един и същи chunk
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM RenewalCheckpoint c WHERE c.jobName = :jobName")
+    Optional<RenewalCheckpoint> findByJobNameForUpdate(@Param("jobName") String jobName);
+}
@@ -0,0 +1,30 @@
+package app.subscription.repository;
+
+import app.subscription.model.Subscription;
+import app.subscription.model.SubscriptionStatus;
+import app.subscription.model.SubscriptionType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface SubscriptionRepository extends JpaRepository<Subscription, UUID> {
+
+    Optional<Subscription> findByStatusAndOwnerId(SubscriptionStatus status, UUID ownerId);
+
+    // Projection - взимаме само типа на активния план, без да зареждаме user.subscriptions
+    @Query("""
+            SELECT s.type FROM Subscription s WHERE s.owner.id = :ownerId AND s.status = app.subscription.model.SubscriptionStatus.ACTIVE
+            """)
+    Optional<SubscriptionType> findActiveTypeByOwnerId(@Param("ownerId") UUID ownerId);
+
+    // Keyset pagination: WHERE id > :lastId ORDER BY id LIMIT :limit - без OFFSET, всеки chunk е еднакво бърз
+    List<Subscription> findAllByStatusAndCompletedOnBeforeAndIdGreaterThanOrderByIdAsc(SubscriptionStatus status, LocalDateTime cutoff, UUID lastId, Limit limit);
+}
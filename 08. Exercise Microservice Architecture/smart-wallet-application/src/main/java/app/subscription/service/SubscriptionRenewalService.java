@@ -0,0 +1,218 @@
+package app.subscription.service;
+
+import app.subscription.model.RenewalCheckpoint;
+import app.subscription.model.Subscription;
+import app.subscription.model.SubscriptionPeriod;
+import app.subscription.model.SubscriptionStatus;
+import app.subscription.model.SubscriptionType;
+import app.subscription.repository.RenewalCheckpointRepository;
+import app.subscription.repository.SubscriptionRepository;
+import app.transaction.model.Transaction;
+import app.transaction.model.TransactionStatus;
+import app.transaction.model.TransactionType;
+import app.transaction.service.TransactionService;
+import app.wallet.model.Wallet;
+import app.wallet.model.WalletStatus;
+import app.wallet.repository.WalletRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class SubscriptionRenewalService {
+
+    private static final String JOB_NAME = "subscription-renewal";
+    private static final String SMART_WALLET_LTD = "Smart Wallet Ltd";
+    private static final UUID FIRST_ID = new UUID(0, 0);
+
+    private final SubscriptionRepository subscriptionRepository;
+    private final RenewalCheckpointRepository checkpointRepository;
+    private final WalletRepository walletRepository;
+    private final TransactionService transactionService;
+    private final TransactionTemplate chunkTransaction;
+
+    @Value("${subscriptions.renewal.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${subscriptions.renewal.time-budget:PT30M}")
+    private Duration timeBudget;
+
+    @Autowired
+    public SubscriptionRenewalService(SubscriptionRepository subscriptionRepository,
+                                      RenewalCheckpointRepository checkpointRepository,
+                                      WalletRepository walletRepository,
+                                      TransactionService transactionService,
+                                      PlatformTransactionManager transactionManager) {
+
+        this.subscriptionRepository = subscriptionRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.walletRepository = walletRepository;
+        this.transactionService = transactionService;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // Обработва изтеклите абонаменти на chunks - една транзакция на chunk.
+    // Ако времето (time budget) изтече, спира и следващия run продължава от checkpoint-а.
+    public void renewExpiringSubscriptions() {
+
+        LocalDateTime deadline = LocalDateTime.now().plus(timeBudget);
+        RenewalCheckpoint checkpoint = loadOrStartCheckpoint();
+
+        while (LocalDateTime.now().isBefore(deadline)) {
+
+            checkpoint = chunkTransaction.execute(status -> renewNextChunk());
+
+            if (checkpoint.isCompleted()) {
+                log.info("Subscription renewal finished. Processed [%d] subscriptions.".formatted(checkpoint.getProcessedCount()));
+                return;
+            }
+        }
+
+        log.warn("Subscription renewal time budget [%s] exceeded. Will continue from subscription with id [%s].".formatted(timeBudget, checkpoint.getLastProcessedId()));
+    }
+
+    private RenewalCheckpoint loadOrStartCheckpoint() {
+
+        Optional<RenewalCheckpoint> optionalCheckpoint = checkpointRepository.findById(JOB_NAME);
+        if (optionalCheckpoint.isPresent() && !optionalCheckpoint.get().isCompleted()) {
+            return optionalCheckpoint.get();
+        }
+
+        RenewalCheckpoint checkpoint = RenewalCheckpoint.builder()
+                .jobName(JOB_NAME)
+                .cutoff(LocalDateTime.now())
+                .processedCount(0)
+                .completed(false)
+                .updatedOn(LocalDateTime.now())
+                .build();
+
+        return checkpointRepository.save(checkpoint);
+    }
+
+    private RenewalCheckpoint renewNextChunk() {
+
+        // Защита срещу двама паралелни run-а: checkpoint-а се заключва до края на транзакцията на chunk-а.
+        // Втората инстанция чака commit-а и продължава от преместения checkpoint (или вижда, че run-а е приключил).
+        RenewalCheckpoint checkpoint = checkpointRepository.findByJobNameForUpdate(JOB_NAME).orElseThrow();
+        if (checkpoint.isCompleted()) {
+            return checkpoint;
+        }
+
+        // Chunk-ът се чете под lock-а и в същата транзакция - абонаментите са managed и се пишат с dirty checking,
+        // без merge (SELECT на ред) и без да презаписват промяна, направена преди lock-а (напр. upgrade)
+        UUID lastId = checkpoint.getLastProcessedId() == null ? FIRST_ID : checkpoint.getLastProcessedId();
+        List<Subscription> chunk = subscriptionRepository.findAllByStatusAndCompletedOnBeforeAndIdGreaterThanOrderByIdAsc(
+                SubscriptionStatus.ACTIVE, checkpoint.getCutoff(), lastId, Limit.of(chunkSize));
+
+        LocalDateTime now = LocalDateTime.now();
+        if (chunk.isEmpty()) {
+            checkpoint.setCompleted(true);
+        } else {
+            renewChunk(chunk, now);
+            checkpoint.setLastProcessedId(chunk.get(chunk.size() - 1).getId());
+            checkpoint.setProcessedCount(checkpoint.getProcessedCount() + chunk.size());
+        }
+        checkpoint.setUpdatedOn(now);
+
+        return checkpointRepository.save(checkpoint);
+    }
+
+    private void renewChunk(List<Subscription> chunk, LocalDateTime now) {
+
+        // Една заявка за портфейлите на всички собственици в chunk-а. Заключени са до commit-а на chunk-а,
+        // така че top-up или плащане не може да се случи между четенето на баланса и таксуването.
+        Set<UUID> ownerIds = chunk.stream().map(s -> s.getOwner().getId()).collect(Collectors.toSet());
+        Map<UUID, List<Wallet>> walletsByOwnerId = walletRepository.findAllByOwnerIdInAndStatusForUpdate(ownerIds, WalletStatus.ACTIVE)
+                .stream()
+                .collect(Collectors.groupingBy(w -> w.getOwner().getId()));
+
+        List<Subscription> newSubscriptions = new ArrayList<>();
+        List<Transaction> renewalTransactions = new ArrayList<>();
+
+        for (Subscription subscription : chunk) {
+
+            List<Wallet> ownerWallets = walletsByOwnerId.getOrDefault(subscription.getOwner().getId(), List.of());
+            Optional<Wallet> payingWallet = ownerWallets.stream()
+                    .filter(w -> w.getBalance().compareTo(subscription.getPrice()) >= 0)
+                    .findFirst();
+
+            boolean isFreePlan = subscription.getPrice().compareTo(BigDecimal.ZERO) == 0;
+            boolean canRenew = subscription.isRenewalAllowed() && (isFreePlan || payingWallet.isPresent());
+
+            if (canRenew && !isFreePlan) {
+                Wallet wallet = payingWallet.get();
+                wallet.setBalance(wallet.getBalance().subtract(subscription.getPrice()));
+                wallet.setUpdatedOn(now);
+                renewalTransactions.add(renewalTransaction(subscription, wallet, TransactionStatus.SUCCEEDED, null));
+            } else if (!canRenew && subscription.isRenewalAllowed() && !ownerWallets.isEmpty()) {
+                renewalTransactions.add(renewalTransaction(subscription, ownerWallets.get(0), TransactionStatus.FAILED, "Insufficient funds"));
+            }
+
+            subscription.setStatus(canRenew ? SubscriptionStatus.COMPLETED : SubscriptionStatus.TERMINATED);
+            newSubscriptions.add(canRenew ? renewedSubscription(subscription, now) : defaultSubscription(subscription, now));
+        }
+
+        // Изтеклите абонаменти и wallet-ите са managed - промените се flush-ват заедно с batch insert-ите при commit
+        subscriptionRepository.saveAll(newSubscriptions);
+        transactionService.createNewTransactions(renewalTransactions);
+    }
+
+    private Transaction renewalTransaction(Subscription subscription, Wallet wallet, TransactionStatus status, String failureReason) {
+
+        return Transaction.builder()
+                .owner(subscription.getOwner())
+                .sender(wallet.getId().toString())
+                .receiver(SMART_WALLET_LTD)
+                .senderWalletId(wallet.getId())
+                .amount(subscription.getPrice())
+                .balanceLeft(wallet.getBalance())
+                .currency(wallet.getCurrency())
+                .type(TransactionType.WITHDRAWAL)
+                .status(status)
+                .description("Renewal of %s %s subscription".formatted(subscription.getPeriod(), subscription.getType()))
+                .failureReason(failureReason)
+                .createdOn(LocalDateTime.now())
+                .build();
+    }
+
+    private Subscription renewedSubscription(Subscription expired, LocalDateTime now) {
+
+        return Subscription.builder()
+                .owner(expired.getOwner())
+                .status(SubscriptionStatus.ACTIVE)
+                .type(expired.getType())
+                .period(expired.getPeriod())
+                .price(expired.getPrice())
+                .renewalAllowed(true)
+                .createdOn(now)
+                .completedOn(expired.getPeriod() == SubscriptionPeriod.MONTHLY ? now.plusMonths(1) : now.plusYears(1))
+                .build();
+    }
+
+    private Subscription defaultSubscription(Subscription expired, LocalDateTime now) {
+
+        return Subscription.builder()
+                .owner(expired.getOwner())
+                .status(SubscriptionStatus.ACTIVE)
+                .type(SubscriptionType.DEFAULT)
+                .period(SubscriptionPeriod.MONTHLY)
+                .price(BigDecimal.ZERO)
+                .renewalAllowed(true)
+                .createdOn(now)
+                .completedOn(now.plusMonths(1))
+                .build();
+    }
+}
@@ -0,0 +1,74 @@
+package app.transaction.model;
+
+import app.persistence.UuidV7;
+import app.user.model.User;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Currency;
+import java.util.UUID;
+
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_sender_wallet_id", columnList = "senderWalletId, createdOn"),
+        @Index(name = "idx_transactions_receiver_wallet_id", columnList = "receiverWalletId, createdOn")
+})
+public class Transaction {
+
+    // UUID v7 - времево подредени id-та, генерирани в приложението (append-mostly индекс)
+    @Id
+    @UuidV7
+    private UUID id;
+
+    @ManyToOne
+    private User owner;
+
+    @Column(nullable = false)
+    private String sender;
+
+    @Column(nullable = false)
+    private String receiver;
+
+    // Типизирани id-та на портфейлите (BINARY(16)) - по тях се търси.
+    // sender/receiver остават като текст за показване (може да са и "Smart Wallet Ltd" или username).
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(length = 16)
+    private UUID senderWalletId;
+
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(length = 16)
+    private UUID receiverWalletId;
+
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    @Column(nullable = false)
+    private BigDecimal balanceLeft;
+
+    @Column(nullable = false)
+    private Currency currency;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TransactionType type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TransactionStatus status;
+
+    private String description;
+
+    private String failureReason;
+
+    @Column(nullable = false)
+    private LocalDateTime createdOn;
+}
@@ -0,0 +1,34 @@
+package app.transaction.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Докъде е стигнал TransactionWalletIdBackfill - след рестарт продължава оттук, а приключил backfill не се пуска отново
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WalletIdBackfillCheckpoint {
+
+    @Id
+    private String jobName;
+
+    // Последното обработено id на транзакция (keyset pagination)
+    private UUID lastProcessedId;
+
+    private long processedCount;
+
+    private boolean completed;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedOn;
+}
@@ -0,0 +1,10 @@
+package app.transaction.repository;
+
+import app.transaction.model.WalletIdBackfillCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface WalletIdBackfillCheckpointRepository extends JpaRepository<WalletIdBackfillCheckpoint, String> {
+
+}
@@ -1,7 +1,7 @@
 package app.transaction.service;
 
 import app.exception.DomainException;
-import app.notification.service.NotificationService;
+import app.notification.event.TransactionCreatedEvent;
 import app.transaction.model.Transaction;
 import app.transaction.model.TransactionStatus;
 import app.transaction.model.TransactionType;
@@ -10,13 +10,14 @@ import app.user.model.User;
 import app.wallet.model.Wallet;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.Currency;
-import java.util.List;
-import java.util.UUID;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -24,20 +25,25 @@ import java.util.stream.Collectors;
 public class TransactionService {
 
     private final TransactionRepository transactionRepository;
-    private final NotificationService notificationService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionWalletIdBackfill walletIdBackfill;
 
     @Autowired
-    public TransactionService(TransactionRepository transactionRepository, NotificationService notificationService) {
+    public TransactionService(TransactionRepository transactionRepository, ApplicationEventPublisher eventPublisher, TransactionWalletIdBackfill walletIdBackfill) {
         this.transactionRepository = transactionRepository;
-        this.notificationService = notificationService;
+        this.eventPublisher = eventPublisher;
+        this.walletIdBackfill = walletIdBackfill;
     }
 
-    public Transaction createNewTransaction(User owner, String sender, String receiver, BigDecimal transactionAmount, BigDecimal balanceLeft, Currency currency, TransactionType type, TransactionStatus status, String transactionDescription, String failureReason) {
+    // senderWalletId/receiverWalletId се подават изрично - null, когато страната не е портфейл ("Smart Wallet Ltd", username)
+    public Transaction createNewTransaction(User owner, String sender, UUID senderWalletId, String receiver, UUID receiverWalletId, BigDecimal transactionAmount, BigDecimal balanceLeft, Currency currency, TransactionType type, TransactionStatus status, String transactionDescription, String failureReason) {
 
         Transaction transaction = Transaction.builder()
                 .owner(owner)
                 .sender(sender)
                 .receiver(receiver)
+                .senderWalletId(senderWalletId)
+                .receiverWalletId(receiverWalletId)
                 .amount(transactionAmount)
                 .balanceLeft(balanceLeft)
                 .currency(currency)
@@ -48,25 +54,44 @@ public class TransactionService {
                 .createdOn(LocalDateTime.now())
                 .build();
 
+        // Имейлът се изпраща след commit на извикващата транзакция (topUp, charge, transfer) - виж NotificationEventListener
         String emailBody = "%s transaction was successful processed for you with amount %.2f EUR!".formatted(transaction.getType(), transaction.getAmount());
-        notificationService.sendNotification(transaction.getOwner().getId(), "New Smart Wallet Transaction", emailBody);
+        eventPublisher.publishEvent(TransactionCreatedEvent.builder()
+                .userId(transaction.getOwner().getId())
+                .emailSubject("New Smart Wallet Transaction")
+                .emailBody(emailBody)
+                .build());
 
         return transactionRepository.save(transaction);
     }
 
+    // Bulk path (renewal job): един saveAll, който Hibernate изпраща като JDBC batch, без нотификация за всяка транзакция
+    public List<Transaction> createNewTransactions(List<Transaction> transactions) {
+
+        return transactionRepository.saveAll(transactions);
+    }
+
+    @Transactional(readOnly = true)
     public List<Transaction> getAllByOwnerId(UUID ownerId) {
 
         return transactionRepository.findAllByOwnerIdOrderByCreatedOnDesc(ownerId);
     }
 
+    @Transactional(readOnly = true)
     public Transaction getById(UUID id) {
 
         return transactionRepository.findById(id)
                 .orElseThrow(() -> new DomainException("Transaction with id [%s] does not exist.".formatted(id)));
     }
 
+    @Transactional(readOnly = true)
     public List<Transaction> getLastFourTransactionsByWallet(Wallet wallet) {
 
+        if (walletIdBackfill.isCompleted()) {
+            return transactionRepository.findLatestByWalletId(wallet.getId(), wallet.getOwner().getId(), TransactionStatus.SUCCEEDED, Limit.of(4));
+        }
+
+        // Докато backfill-а не е приключил, старите транзакции имат само текстовите sender/receiver
         List<Transaction> lastFourTransactions = transactionRepository.findAllBySenderOrReceiverOrderByCreatedOnDesc(wallet.getId().toString(), wallet.getId().toString())
                 .stream()
                 .filter(t -> t.getOwner().getId() == wallet.getOwner().getId())
@@ -76,4 +101,42 @@ public class TransactionService {
 
         return lastFourTransactions;
     }
+
+    // Wallets page - последните 4 транзакции на всички портфейли на потребителя с една заявка, вместо по една на портфейл
+    @Transactional(readOnly = true)
+    public Map<UUID, List<Transaction>> getLastFourTransactionsByWallets(List<Wallet> wallets) {
+
+        Map<UUID, List<Transaction>> transactionsByWalletId = new LinkedHashMap<>();
+        if (wallets.isEmpty()) {
+            return transactionsByWalletId;
+        }
+
+        UUID ownerId = wallets.get(0).getOwner().getId();
+        List<UUID> walletIds = wallets.stream().map(Wallet::getId).toList();
+
+        List<Transaction> latestTransactions;
+        if (walletIdBackfill.isCompleted()) {
+            latestTransactions = transactionRepository.findLatestByWalletIds(walletIds, ownerId, TransactionStatus.SUCCEEDED, 4);
+        } else {
+            List<String> textWalletIds = walletIds.stream().map(UUID::toString).toList();
+            latestTransactions = transactionRepository.findAllByTextWalletIds(textWalletIds, ownerId, TransactionStatus.SUCCEEDED);
+        }
+
+        // Резултатът е подреден по createdOn DESC - първите 4 за всеки портфейл
+        for (UUID walletId : walletIds) {
+            transactionsByWalletId.put(walletId, latestTransactions.stream()
+                    .filter(transaction -> belongsToWallet(transaction, walletId))
+                    .limit(4)
+                    .toList());
+        }
+
+        return transactionsByWalletId;
+    }
+
+    private static boolean belongsToWallet(Transaction transaction, UUID walletId) {
+
+        String textWalletId = walletId.toString();
+        return walletId.equals(transaction.getSenderWalletId()) || walletId.equals(transaction.getReceiverWalletId())
+                || textWalletId.equals(transaction.getSender()) || textWalletId.equals(transaction.getReceiver());
+    }
 }
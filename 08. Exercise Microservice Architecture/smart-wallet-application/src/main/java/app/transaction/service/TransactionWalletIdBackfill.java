@@ -0,0 +1,158 @@
+package app.transaction.service;
+
+import app.transaction.model.Transaction;
+import app.transaction.model.WalletIdBackfillCheckpoint;
+import app.transaction.repository.TransactionRepository;
+import app.transaction.repository.WalletIdBackfillCheckpointRepository;
+import app.wallet.repository.WalletRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+// Online миграция: попълва senderWalletId/receiverWalletId за старите транзакции на малки chunk-ове,
+// докато приложението работи. Прогреса се пази в checkpoint, така че рестарт не започва отначало.
+@Slf4j
+@Component
+public class TransactionWalletIdBackfill {
+
+    private static final String JOB_NAME = "transaction-wallet-id-backfill";
+    private static final UUID FIRST_ID = new UUID(0, 0);
+
+    private final TransactionRepository transactionRepository;
+    private final WalletIdBackfillCheckpointRepository checkpointRepository;
+    private final WalletRepository walletRepository;
+    private final TransactionTemplate chunkTransaction;
+
+    @Value("${transactions.wallet-id-backfill.chunk-size:1000}")
+    private int chunkSize;
+
+    private volatile boolean completed;
+
+    @Autowired
+    public TransactionWalletIdBackfill(TransactionRepository transactionRepository,
+                                       WalletIdBackfillCheckpointRepository checkpointRepository,
+                                       WalletRepository walletRepository,
+                                       PlatformTransactionManager transactionManager) {
+
+        this.transactionRepository = transactionRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.walletRepository = walletRepository;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    // Приключил backfill (от предишен run) важи веднага след стартиране, без да чака първия chunk
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadCheckpoint() {
+
+        completed = checkpointRepository.findById(JOB_NAME)
+                .map(WalletIdBackfillCheckpoint::isCompleted)
+                .orElse(false);
+    }
+
+    // Един chunk на всеки N милисекунди - не натоварва базата и не държи дълги lock-ове
+    @Scheduled(fixedDelayString = "${transactions.wallet-id-backfill.delay-ms:1000}")
+    public void backfillNextChunk() {
+
+        if (completed) {
+            return;
+        }
+
+        chunkTransaction.executeWithoutResult(status -> {
+
+            WalletIdBackfillCheckpoint checkpoint = checkpointRepository.findById(JOB_NAME).orElseGet(this::newCheckpoint);
+            if (checkpoint.isCompleted()) {
+                completed = true;
+                return;
+            }
+
+            UUID lastId = checkpoint.getLastProcessedId() == null ? FIRST_ID : checkpoint.getLastProcessedId();
+            List<Transaction> chunk = transactionRepository.findAllByIdGreaterThanOrderByIdAsc(lastId, Limit.of(chunkSize));
+
+            if (chunk.isEmpty()) {
+                checkpoint.setCompleted(true);
+                completed = true;
+                log.info("Wallet id backfill finished. Processed [%d] transactions.".formatted(checkpoint.getProcessedCount()));
+            } else {
+                fillWalletIds(chunk);
+                // Managed entity-та - UPDATE-ите се flush-ват като batch при commit
+                checkpoint.setLastProcessedId(chunk.get(chunk.size() - 1).getId());
+                checkpoint.setProcessedCount(checkpoint.getProcessedCount() + chunk.size());
+            }
+
+            checkpoint.setUpdatedOn(LocalDateTime.now());
+            checkpointRepository.save(checkpoint);
+        });
+    }
+
+    // В старите транзакции sender/receiver е id на портфейл, "Smart Wallet Ltd" или username (неуспешен transfer).
+    // UUID-подобен текст се приема за wallet id само ако такъв портфейл съществува - една заявка за целия chunk.
+    private void fillWalletIds(List<Transaction> chunk) {
+
+        Set<UUID> candidates = new HashSet<>();
+        for (Transaction transaction : chunk) {
+            addCandidate(candidates, transaction.getSender());
+            addCandidate(candidates, transaction.getReceiver());
+        }
+        Set<UUID> walletIds = candidates.isEmpty() ? Set.of() : walletRepository.findExistingIds(candidates);
+
+        for (Transaction transaction : chunk) {
+            if (transaction.getSenderWalletId() == null) {
+                transaction.setSenderWalletId(toWalletId(transaction.getSender(), walletIds));
+            }
+            if (transaction.getReceiverWalletId() == null) {
+                transaction.setReceiverWalletId(toWalletId(transaction.getReceiver(), walletIds));
+            }
+        }
+    }
+
+    private static void addCandidate(Set<UUID> candidates, String senderOrReceiver) {
+
+        UUID candidate = parseUuid(senderOrReceiver);
+        if (candidate != null) {
+            candidates.add(candidate);
+        }
+    }
+
+    private static UUID toWalletId(String senderOrReceiver, Set<UUID> walletIds) {
+
+        UUID candidate = parseUuid(senderOrReceiver);
+        return candidate != null && walletIds.contains(candidate) ? candidate : null;
+    }
+
+    private static UUID parseUuid(String value) {
+
+        if (value == null || value.length() != 36) {
+            return null;
+        }
+
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private WalletIdBackfillCheckpoint newCheckpoint() {
+
+        return WalletIdBackfillCheckpoint.builder()
+                .jobName(JOB_NAME)
+                .processedCount(0)
+                .completed(false)
+                .updatedOn(LocalDateTime.now())
+                .build();
+    }
+}
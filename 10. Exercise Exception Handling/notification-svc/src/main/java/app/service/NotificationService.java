@@ -14,6 +14,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.mail.MailSender;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -66,6 +67,7 @@ public class NotificationService {
         return preferenceRepository.save(notificationPreference);
     }
 
+    @Transactional(readOnly = true)
     public NotificationPreference getPreferenceByUserId(UUID userId) {
 
         return preferenceRepository.findByUserId(userId).orElseThrow(() -> new NullPointerException("Notification preference for user id %s was not found.".formatted(userId)));
@@ -106,6 +108,7 @@ public class NotificationService {
         return notificationRepository.save(notification);
     }
 
+    @Transactional(readOnly = true)
     public List<Notification> getNotificationHistory(UUID userId) {
 
         return notificationRepository.findAllByUserIdAndDeletedIsFalse(userId);
@@ -118,14 +121,14 @@ public class NotificationService {
         return preferenceRepository.save(notificationPreference);
     }
 
+    // Една транзакция + saveAll -> UPDATE-ите отиват към базата като JDBC batch
+    @Transactional
     public void clearNotifications(UUID userId) {
 
         List<Notification> notifications = getNotificationHistory(userId);
 
-        notifications.forEach(notification -> {
-            notification.setDeleted(true);
-            notificationRepository.save(notification);
-        });
+        notifications.forEach(notification -> notification.setDeleted(true));
+        notificationRepository.saveAll(notifications);
     }
 
     public void retryFailedNotifications(UUID userId) {
@@ -0,0 +1,64 @@
+package app.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// Оразмерява HikariCP pool-а при стартиране:
+// size = min(декларирания max concurrency, cores * 2 + effective spindles)
+// Изрично зададен maximum-pool-size има предимство - проверява се за всеки pool поотделно
+// (replicaDataSource се конфигурира от smart-wallet.datasource.replica.hikari, останалите от spring.datasource.hikari).
+@Slf4j
+@Component
+public class HikariPoolSizingPostProcessor implements BeanPostProcessor {
+
+    private static final String DEFAULT_EXPLICIT_POOL_SIZE = "spring.datasource.hikari.maximum-pool-size";
+    private static final Map<String, String> EXPLICIT_POOL_SIZE_BY_BEAN = Map.of(
+            "replicaDataSource", "smart-wallet.datasource.replica.hikari.maximum-pool-size"
+    );
+
+    private final Environment environment;
+
+    public HikariPoolSizingPostProcessor(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+
+        if (!(bean instanceof HikariDataSource dataSource) || hasExplicitPoolSize(beanName)) {
+            return bean;
+        }
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        int spindles = environment.getProperty("smart-wallet.datasource.pool.effective-spindles", Integer.class, 1);
+        int maxConcurrency = environment.getProperty("smart-wallet.datasource.pool.max-concurrency", Integer.class, Integer.MAX_VALUE);
+
+        int poolSize = calculatePoolSize(cores, spindles, maxConcurrency);
+        dataSource.setMaximumPoolSize(poolSize);
+        dataSource.setMinimumIdle(poolSize);
+
+        log.info("HikariCP pool [{}] sized to [{}] connections (cores = {}, spindles = {}, max concurrency = {}).",
+                beanName, poolSize, cores, spindles, maxConcurrency == Integer.MAX_VALUE ? "unbounded" : maxConcurrency);
+
+        return bean;
+    }
+
+    // Binder - relaxed binding, както при @ConfigurationProperties (maximum-pool-size, maximumPoolSize, env променлива)
+    private boolean hasExplicitPoolSize(String beanName) {
+
+        String property = EXPLICIT_POOL_SIZE_BY_BEAN.getOrDefault(beanName, DEFAULT_EXPLICIT_POOL_SIZE);
+        return Binder.get(environment).bind(property, Integer.class).isBound();
+    }
+
+    public static int calculatePoolSize(int cores, int spindles, int maxConcurrency) {
+
+        int formulaSize = cores * 2 + spindles;
+        return Math.max(1, Math.min(formulaSize, maxConcurrency));
+    }
+}
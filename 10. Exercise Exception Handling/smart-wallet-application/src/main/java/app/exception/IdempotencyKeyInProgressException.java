@@ -0,0 +1,11 @@
+package app.exception;
+
+public class IdempotencyKeyInProgressException extends RuntimeException {
+
+    public IdempotencyKeyInProgressException() {
+    }
+
+    public IdempotencyKeyInProgressException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package app.exception;
+
+public class IdempotencyKeyReuseException extends RuntimeException {
+
+    public IdempotencyKeyReuseException() {
+    }
+
+    public IdempotencyKeyReuseException(String message) {
+        super(message);
+    }
+}
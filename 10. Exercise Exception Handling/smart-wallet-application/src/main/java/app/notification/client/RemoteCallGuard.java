@@ -0,0 +1,40 @@
+package app.notification.client;
+
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Прилага се към всички Feign клиенти.
+// Ако заявката тръгва докато текущата нишка е в транзакция, DB връзката стои заета през целия HTTP round trip.
+// В prod само логва WARN, в тестовете (smart-wallet.remote-call-guard.fail-on-violation=true) спира заявката.
+@Slf4j
+@Component
+public class RemoteCallGuard implements RequestInterceptor {
+
+    private final boolean failOnViolation;
+
+    public RemoteCallGuard(@Value("${smart-wallet.remote-call-guard.fail-on-violation:false}") boolean failOnViolation) {
+        this.failOnViolation = failOnViolation;
+    }
+
+    @Override
+    public void apply(RequestTemplate template) {
+
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return;
+        }
+
+        String message = "Remote call [%s %s] made inside transaction [%s] - a DB connection is held for the whole HTTP round trip."
+                .formatted(template.method(), template.path(), TransactionSynchronizationManager.getCurrentTransactionName());
+
+        if (failOnViolation) {
+            // AssertionError, а не RuntimeException - NotificationService хваща Exception и иначе тестът няма да го види
+            throw new AssertionError(message);
+        }
+
+        log.warn(message);
+    }
+}
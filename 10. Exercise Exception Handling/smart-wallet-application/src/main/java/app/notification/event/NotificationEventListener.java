@@ -0,0 +1,37 @@
+package app.notification.event;
+
+import app.notification.service.NotificationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// Feign заявките към notification-svc се изпълняват едва след commit и в отделна нишка:
+// по време на AFTER_COMMIT Spring все още държи връзката на EntityManager-а (освобождава я в cleanup-а след това),
+// затова @Async - HTTP round trip-ът не задържа връзка от pool-а.
+// fallbackExecution = true - ако събитието е публикувано извън транзакция, пак се обработва.
+@Component
+public class NotificationEventListener {
+
+    private final NotificationService notificationService;
+
+    @Autowired
+    public NotificationEventListener(NotificationService notificationService) {
+        this.notificationService = notificationService;
+    }
+
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserRegistered(UserRegisteredEvent event) {
+
+        // Persist new notification preference with isEnabled = false
+        notificationService.saveNotificationPreference(event.getUserId(), false, null);
+    }
+
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionCreated(TransactionCreatedEvent event) {
+
+        notificationService.sendNotification(event.getUserId(), event.getEmailSubject(), event.getEmailBody());
+    }
+}
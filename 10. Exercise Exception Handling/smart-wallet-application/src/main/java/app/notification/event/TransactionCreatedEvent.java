@@ -0,0 +1,18 @@
+package app.notification.event;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.UUID;
+
+// Публикува се от TransactionService.createNewTransaction - имейлът се изпраща след commit
+@Getter
+@Builder
+public class TransactionCreatedEvent {
+
+    private UUID userId;
+
+    private String emailSubject;
+
+    private String emailBody;
+}
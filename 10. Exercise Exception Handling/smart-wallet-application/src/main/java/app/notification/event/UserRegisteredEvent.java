@@ -0,0 +1,14 @@
+package app.notification.event;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.UUID;
+
+// Публикува се от UserService.register - preference-ът се записва в notification-svc след commit
+@Getter
+@Builder
+public class UserRegisteredEvent {
+
+    private UUID userId;
+}
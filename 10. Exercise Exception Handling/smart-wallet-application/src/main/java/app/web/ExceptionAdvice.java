@@ -1,6 +1,8 @@
 package app.web;
 
 
+import app.exception.IdempotencyKeyInProgressException;
+import app.exception.IdempotencyKeyReuseException;
 import app.exception.NotificationServiceFeignCallException;
 import app.exception.UsernameAlreadyExistException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -72,6 +74,21 @@ public class ExceptionAdvice {
         return "redirect:/notifications";
     }
 
+    // Същия Idempotency-Key с други параметри или докато първата заявка още се изпълнява
+    @ResponseStatus(HttpStatus.CONFLICT)
+    @ExceptionHandler({
+            IdempotencyKeyReuseException.class,
+            IdempotencyKeyInProgressException.class
+    })
+    public ModelAndView handleIdempotencyConflict(RuntimeException exception) {
+
+        ModelAndView modelAndView = new ModelAndView();
+        modelAndView.setViewName("internal-server-error");
+        modelAndView.addObject("errorMessage", exception.getClass().getSimpleName());
+
+        return modelAndView;
+    }
+
     @ResponseStatus(HttpStatus.NOT_FOUND)
     @ExceptionHandler({
             AccessDeniedException.class, // Когато се опитва да достъпи endpoint, до който не му е позволено/нямам достъп
@@ -0,0 +1,67 @@
+package app.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class HikariPoolSizingPostProcessorUTest {
+
+    @Test
+    void givenNoMaxConcurrency_whenCalculatePoolSize_thenCoresTimesTwoPlusSpindles() {
+
+        assertEquals(9, HikariPoolSizingPostProcessor.calculatePoolSize(4, 1, Integer.MAX_VALUE));
+        assertEquals(20, HikariPoolSizingPostProcessor.calculatePoolSize(8, 4, Integer.MAX_VALUE));
+    }
+
+    @Test
+    void givenMaxConcurrencyBelowFormula_whenCalculatePoolSize_thenMaxConcurrency() {
+
+        assertEquals(5, HikariPoolSizingPostProcessor.calculatePoolSize(4, 1, 5));
+    }
+
+    @Test
+    void givenZeroMaxConcurrency_whenCalculatePoolSize_thenAtLeastOneConnection() {
+
+        assertEquals(1, HikariPoolSizingPostProcessor.calculatePoolSize(4, 1, 0));
+    }
+
+    @Test
+    void givenExplicitReplicaPoolSize_whenPostProcessed_thenOnlyPrimaryIsResized() {
+
+        // Given
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("smart-wallet.datasource.replica.hikari.maximum-pool-size", "3")
+                .withProperty("smart-wallet.datasource.pool.max-concurrency", "5");
+        HikariPoolSizingPostProcessor postProcessor = new HikariPoolSizingPostProcessor(environment);
+        HikariDataSource primary = new HikariDataSource();
+        HikariDataSource replica = new HikariDataSource();
+        replica.setMaximumPoolSize(3);
+
+        // When
+        postProcessor.postProcessAfterInitialization(primary, "primaryDataSource");
+        postProcessor.postProcessAfterInitialization(replica, "replicaDataSource");
+
+        // Then
+        assertEquals(HikariPoolSizingPostProcessor.calculatePoolSize(Runtime.getRuntime().availableProcessors(), 1, 5), primary.getMaximumPoolSize());
+        assertEquals(3, replica.getMaximumPoolSize());
+    }
+
+    @Test
+    void givenExplicitPrimaryPoolSizeInCamelCase_whenPostProcessed_thenPrimaryIsNotResized() {
+
+        // Given
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.datasource.hikari.maximumPoolSize", "7");
+        HikariPoolSizingPostProcessor postProcessor = new HikariPoolSizingPostProcessor(environment);
+        HikariDataSource primary = new HikariDataSource();
+        primary.setMaximumPoolSize(7);
+
+        // When
+        postProcessor.postProcessAfterInitialization(primary, "dataSource");
+
+        // Then
+        assertEquals(7, primary.getMaximumPoolSize());
+    }
+}
@@ -0,0 +1,44 @@
+package app.notification;
+
+import app.notification.client.RemoteCallGuard;
+import feign.RequestTemplate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class RemoteCallGuardUTest {
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    void givenNoActiveTransaction_whenApply_thenRequestIsAllowed() {
+
+        RemoteCallGuard guard = new RemoteCallGuard(true);
+
+        assertDoesNotThrow(() -> guard.apply(new RequestTemplate()));
+    }
+
+    @Test
+    void givenActiveTransactionAndFailMode_whenApply_thenAssertionErrorIsThrown() {
+
+        RemoteCallGuard guard = new RemoteCallGuard(true);
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        assertThrows(AssertionError.class, () -> guard.apply(new RequestTemplate()));
+    }
+
+    @Test
+    void givenActiveTransactionAndWarnMode_whenApply_thenRequestIsAllowed() {
+
+        RemoteCallGuard guard = new RemoteCallGuard(false);
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        assertDoesNotThrow(() -> guard.apply(new RequestTemplate()));
+    }
+}
@@ -0,0 +1,81 @@
+package app.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RateLimiterUTest {
+
+    // 16 shard-а - по един bucket на shard
+    private static final int MAX_BUCKETS = 16;
+
+    @Test
+    void givenSameKey_whenCapacityIsUsed_thenNextRequestWaitsAndOtherKeysAreNotAffected() {
+
+        // Given
+        RateLimiter rateLimiter = new RateLimiter(properties(Duration.ofMinutes(5)));
+        RateLimitProperties.Limit limit = limit(1, Duration.ofHours(1));
+
+        // When
+        long first = rateLimiter.tryAcquire("/register|10.0.0.1", limit);
+        long second = rateLimiter.tryAcquire("/register|10.0.0.1", limit);
+        long otherClient = rateLimiter.tryAcquire("/register|10.0.0.2", limit);
+
+        // Then
+        assertEquals(0, first);
+        assertTrue(second > 0);
+        assertEquals(0, otherClient);
+    }
+
+    @Test
+    void givenManyDistinctKeys_whenShardsAreFull_thenBucketsAreEvictedAndMemoryStaysBounded() {
+
+        // Given - нищо не е idle, при пълен shard се трият произволни bucket-и
+        RateLimiter rateLimiter = new RateLimiter(properties(Duration.ofHours(1)));
+        RateLimitProperties.Limit limit = limit(1, Duration.ofHours(1));
+
+        // When
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(0, rateLimiter.tryAcquire("/register|10.0.%d.%d".formatted(i / 256, i % 256), limit));
+        }
+
+        // Then
+        assertTrue(rateLimiter.size() <= MAX_BUCKETS);
+    }
+
+    @Test
+    void givenIdleBuckets_whenEvictionRuns_thenTheyAreRemoved() throws InterruptedException {
+
+        // Given - интервал от 1 ms и нулев idle timeout: всеки bucket е idle веднага след зареждането си
+        RateLimiter rateLimiter = new RateLimiter(properties(Duration.ZERO));
+        RateLimitProperties.Limit limit = limit(1, Duration.ofMillis(1));
+        rateLimiter.tryAcquire("/register|10.0.0.1", limit);
+        rateLimiter.tryAcquire("/transfers|user-id", limit);
+        Thread.sleep(5);
+
+        // When
+        rateLimiter.evictIdleBuckets();
+
+        // Then
+        assertEquals(0, rateLimiter.size());
+    }
+
+    private static RateLimitProperties properties(Duration idleTimeout) {
+
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setMaxBuckets(MAX_BUCKETS);
+        properties.setIdleTimeout(idleTimeout);
+        return properties;
+    }
+
+    private static RateLimitProperties.Limit limit(int capacity, Duration refillPeriod) {
+
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit();
+        limit.setCapacity(capacity);
+        limit.setRefillPeriod(refillPeriod);
+        return limit;
+    }
+}
@@ -0,0 +1,49 @@
+package app.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TokenBucketUTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void givenFullBucket_whenBurstUpToCapacity_thenAllRequestsPassAndNextIsRejected() {
+
+        // 5 requests per second
+        TokenBucket bucket = new TokenBucket(5, SECOND / 5, 0);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, bucket.tryConsume(0));
+        }
+
+        assertEquals(SECOND / 5, bucket.tryConsume(0));
+    }
+
+    @Test
+    void givenEmptyBucket_whenOneIntervalPasses_thenOneTokenIsAvailable() {
+
+        TokenBucket bucket = new TokenBucket(5, SECOND / 5, 0);
+        for (int i = 0; i < 5; i++) {
+            bucket.tryConsume(0);
+        }
+
+        assertEquals(0, bucket.tryConsume(SECOND / 5));
+        assertTrue(bucket.tryConsume(SECOND / 5) > 0);
+    }
+
+    @Test
+    void givenUsedBucket_whenIdleTimeoutPasses_thenBucketIsIdle() {
+
+        TokenBucket bucket = new TokenBucket(5, SECOND / 5, 0);
+        bucket.tryConsume(0);
+
+        assertFalse(bucket.isIdle(SECOND, 5 * SECOND));
+        assertTrue(bucket.isIdle(6 * SECOND, 5 * SECOND));
+    }
+}
@@ -2,6 +2,7 @@ package app.user;
 
 import app.exception.DomainException;
 import app.exception.UsernameAlreadyExistException;
+import app.notification.event.UserRegisteredEvent;
 import app.notification.service.NotificationService;
 import app.security.AuthenticationMetadata;
 import app.subscription.model.Subscription;
@@ -20,9 +21,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
@@ -54,6 +57,8 @@ public class UserServiceUTest {
     private WalletService walletService;
     @Mock
     private NotificationService notificationService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private UserService userService;
@@ -184,6 +189,7 @@ public class UserServiceUTest {
         verify(subscriptionService, never()).createDefaultSubscription(any());
         verify(walletService, never()).initilizeFirstWallet(any());
         verify(notificationService, never()).saveNotificationPreference(any(UUID.class), anyBoolean(), anyString());
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     // Test 2: Happy path Registration
@@ -210,7 +216,11 @@ public class UserServiceUTest {
         // Then
         assertThat(registeredUser.getSubscriptions()).hasSize(1);
         assertThat(registeredUser.getWallets()).hasSize(1);
-        verify(notificationService, times(1)).saveNotificationPreference(user.getId(), false, null);
+        // Preference-ът се записва след commit, не по време на register
+        verify(notificationService, never()).saveNotificationPreference(any(UUID.class), anyBoolean(), any());
+        ArgumentCaptor<UserRegisteredEvent> eventCaptor = ArgumentCaptor.forClass(UserRegisteredEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(eventCaptor.capture());
+        assertEquals(user.getId(), eventCaptor.getValue().getUserId());
     }
 
     // Switch status method
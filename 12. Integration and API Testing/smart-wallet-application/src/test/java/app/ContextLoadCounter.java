@@ -0,0 +1,45 @@
+package app;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.test.context.TestContext;
+import org.springframework.test.context.support.AbstractTestExecutionListener;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Колко Spring context-а са вдигнати в тази JVM и колко време е отишло за тях
+// (регистриран в META-INF/spring.factories и като initializer, и като listener).
+// Всеки нов @MockitoBean, @TestPropertySource или @DirtiesContext се вижда тук като допълнително зареждане.
+// Времето е от initialize() до ContextRefreshedEvent - за сравнение преди/след промяна в тестовете.
+@Slf4j
+public class ContextLoadCounter extends AbstractTestExecutionListener implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+
+    private static final AtomicInteger LOADED_CONTEXTS = new AtomicInteger();
+    private static final AtomicLong LOADING_NANOS = new AtomicLong();
+
+    @Override
+    public void initialize(ConfigurableApplicationContext applicationContext) {
+
+        LOADED_CONTEXTS.incrementAndGet();
+        long started = System.nanoTime();
+
+        applicationContext.addApplicationListener((ApplicationListener<ApplicationEvent>) event -> {
+            if (event instanceof ContextRefreshedEvent refreshed && refreshed.getApplicationContext() == applicationContext) {
+                LOADING_NANOS.addAndGet(System.nanoTime() - started);
+            }
+        });
+    }
+
+    @Override
+    public void afterTestClass(TestContext testContext) {
+
+        log.info("[context-cache] {} done - {} Spring application context(s) loaded so far in {} ms.",
+                testContext.getTestClass().getSimpleName(), LOADED_CONTEXTS.get(), TimeUnit.NANOSECONDS.toMillis(LOADING_NANOS.get()));
+    }
+}
@@ -0,0 +1,127 @@
+package app;
+
+import app.monitoring.StatementCountFilter;
+import app.security.AuthenticationMetadata;
+import app.user.model.Country;
+import app.user.model.User;
+import app.user.service.UserService;
+import app.wallet.model.Wallet;
+import app.wallet.model.WalletStatus;
+import app.wallet.repository.WalletRepository;
+import app.wallet.service.WalletService;
+import app.web.dto.RegisterRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Currency;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// SQL-count regression: всяка dashboard страница трябва да се обслужва с ограничен брой заявки,
+// независимо от lazy колекциите на User.
+@IntegrationTest
+public class DashboardQueryCountITest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private User user;
+    private AuthenticationMetadata principal;
+
+    @BeforeEach
+    void setUp() {
+
+        String username = "dash" + UUID.randomUUID().toString().substring(0, 8);
+        user = userService.register(new RegisterRequest(username, "123123", Country.BULGARIA));
+        principal = new AuthenticationMetadata(user.getId(), username, "123123", user.getRole(), true);
+    }
+
+    @Test
+    void homePage_isServedWithBoundedNumberOfQueries() throws Exception {
+
+        // user + wallets, subscriptions
+        assertStatementCountAtMost("/home", 2);
+    }
+
+    @Test
+    void walletsPage_isServedWithBoundedNumberOfQueries() throws Exception {
+
+        // user + wallets, last four transactions for the single wallet
+        assertStatementCountAtMost("/wallets", 2);
+    }
+
+    @Test
+    void walletsPage_withThreeWallets_isServedWithTheSameNumberOfQueries() throws Exception {
+
+        // Given - още два портфейла (директно, без лимита на плана) и по 5 транзакции във всеки
+        walletRepository.save(aWallet());
+        walletRepository.save(aWallet());
+        List<Wallet> wallets = walletRepository.findAllByOwnerUsername(user.getUsername());
+        for (Wallet wallet : wallets) {
+            for (int i = 0; i < 5; i++) {
+                walletService.topUp(wallet.getId(), new BigDecimal("1.00"));
+            }
+        }
+
+        // When
+        MvcResult result = assertStatementCountAtMost("/wallets", 2);
+
+        // Then - user + wallets, last four transactions for all wallets in one query
+        @SuppressWarnings("unchecked")
+        Map<UUID, List<?>> lastFourTransactions = (Map<UUID, List<?>>) result.getModelAndView().getModel().get("lastFourTransactions");
+        assertEquals(3, lastFourTransactions.size());
+        lastFourTransactions.values().forEach(transactions -> assertEquals(4, transactions.size()));
+    }
+
+    @Test
+    void subscriptionHistoryPage_isServedWithBoundedNumberOfQueries() throws Exception {
+
+        // user + subscriptions
+        assertStatementCountAtMost("/subscriptions/history", 1);
+    }
+
+    private MvcResult assertStatementCountAtMost(String url, long maxStatements) throws Exception {
+
+        MvcResult result = mockMvc.perform(get(url).with(user(principal)))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        long statementCount = Long.parseLong(result.getResponse().getHeader(StatementCountFilter.STATEMENT_COUNT_HEADER));
+        assertTrue(statementCount <= maxStatements, "%s executed %d SQL statements, expected at most %d".formatted(url, statementCount, maxStatements));
+
+        return result;
+    }
+
+    private Wallet aWallet() {
+
+        return Wallet.builder()
+                .owner(user)
+                .status(WalletStatus.ACTIVE)
+                .balance(BigDecimal.ZERO)
+                .currency(Currency.getInstance("EUR"))
+                .createdOn(LocalDateTime.now())
+                .updatedOn(LocalDateTime.now())
+                .build();
+    }
+}
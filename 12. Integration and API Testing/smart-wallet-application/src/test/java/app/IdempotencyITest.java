@@ -0,0 +1,127 @@
+package app;
+
+import app.exception.IdempotencyKeyReuseException;
+import app.idempotency.service.IdempotencyService;
+import app.transaction.repository.TransactionRepository;
+import app.user.model.Country;
+import app.user.model.User;
+import app.user.service.UserService;
+import app.wallet.model.Wallet;
+import app.wallet.repository.WalletRepository;
+import app.wallet.service.WalletService;
+import app.web.dto.RegisterRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@IntegrationTest
+public class IdempotencyITest {
+
+    private static final int CONCURRENT_RETRIES = 16;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Test
+    void whenSameTopUpIsRetriedConcurrently_thenWalletIsCreditedExactlyOnce() throws Exception {
+
+        // Given
+        User user = userService.register(new RegisterRequest("idempotentUser", "123123", Country.BULGARIA));
+        Wallet wallet = user.getWallets().get(0);
+        BigDecimal balanceBefore = walletRepository.findById(wallet.getId()).orElseThrow().getBalance();
+        long transactionsBefore = transactionRepository.count();
+        String idempotencyKey = UUID.randomUUID().toString();
+        AtomicInteger topUpCalls = new AtomicInteger();
+
+        // When - the same request arrives many times at once
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_RETRIES);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<UUID>> futures = new ArrayList<>();
+
+        for (int i = 0; i < CONCURRENT_RETRIES; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return idempotencyService.execute(user.getId(), idempotencyKey, "top-up:" + wallet.getId(), () -> {
+                    topUpCalls.incrementAndGet();
+                    return walletService.topUp(wallet.getId(), BigDecimal.valueOf(20));
+                });
+            }));
+        }
+
+        start.countDown();
+        Set<UUID> transactionIds = new HashSet<>();
+        for (Future<UUID> future : futures) {
+            transactionIds.add(future.get(30, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        // Then
+        assertEquals(1, topUpCalls.get());
+        assertEquals(1, transactionIds.size());
+        assertEquals(transactionsBefore + 1, transactionRepository.count());
+        assertEquals(0, balanceBefore.add(BigDecimal.valueOf(20)).compareTo(walletRepository.findById(wallet.getId()).orElseThrow().getBalance()));
+
+        // A later replay is served from the store without calling WalletService
+        UUID replayed = idempotencyService.execute(user.getId(), idempotencyKey, "top-up:" + wallet.getId(), () -> {
+            topUpCalls.incrementAndGet();
+            return walletService.topUp(wallet.getId(), BigDecimal.valueOf(20));
+        });
+        assertEquals(transactionIds.iterator().next(), replayed);
+        assertEquals(1, topUpCalls.get());
+    }
+
+    @Test
+    void whenKeyIsReusedForDifferentRequest_thenExceptionIsThrown() {
+
+        User user = userService.register(new RegisterRequest("idempotentUser2", "123123", Country.BULGARIA));
+        Wallet wallet = user.getWallets().get(0);
+        String idempotencyKey = UUID.randomUUID().toString();
+
+        idempotencyService.execute(user.getId(), idempotencyKey, "top-up:" + wallet.getId(), () -> walletService.topUp(wallet.getId(), BigDecimal.valueOf(20)));
+
+        assertThrows(IdempotencyKeyReuseException.class, () -> idempotencyService.execute(user.getId(), idempotencyKey, "top-up:" + UUID.randomUUID(),
+                () -> walletService.topUp(wallet.getId(), BigDecimal.valueOf(20))));
+    }
+
+    @Test
+    void whenOperationViolatesAnotherConstraint_thenErrorIsRethrownAndKeyStaysFree() {
+
+        // Given
+        User user = userService.register(new RegisterRequest("idempotentUser3", "123123", Country.BULGARIA));
+        Wallet wallet = user.getWallets().get(0);
+        String idempotencyKey = UUID.randomUUID().toString();
+
+        // When - constraint violation в самата операция, не в idempotency_records
+        assertThrows(DataIntegrityViolationException.class, () -> idempotencyService.execute(user.getId(), idempotencyKey, "top-up:" + wallet.getId(), () -> {
+            throw new DataIntegrityViolationException("Simulated unique constraint violation in the operation");
+        }));
+
+        // Then - записът е rollback-нат заедно с операцията, повторението се изпълнява
+        UUID transactionId = idempotencyService.execute(user.getId(), idempotencyKey, "top-up:" + wallet.getId(), () -> walletService.topUp(wallet.getId(), BigDecimal.valueOf(20)));
+        assertEquals(transactionId, transactionRepository.findById(transactionId).orElseThrow().getId());
+    }
+}
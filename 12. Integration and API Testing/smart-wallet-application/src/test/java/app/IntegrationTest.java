@@ -0,0 +1,21 @@
+package app;
+
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestExecutionListeners;
+
+import java.lang.annotation.*;
+
+// Обща конфигурация за integration тестовете - еднаква конфигурация = един и същ кеширан Spring context за всички класове.
+// Вместо @DirtiesContext (нов context за всеки тест) таблиците се изчистват преди всеки тестов метод.
+// Клас, който добавя свои @TestPropertySource / @MockitoBean, получава собствен context.
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@ActiveProfiles("test")
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestExecutionListeners(listeners = TruncateTablesTestExecutionListener.class, mergeMode = TestExecutionListeners.MergeMode.MERGE_WITH_DEFAULTS)
+public @interface IntegrationTest {
+}
@@ -0,0 +1,65 @@
+package app;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Две H2 бази в паметта - testdb е primary, replicadb е replica
+@ActiveProfiles("test")
+@SpringBootTest
+@TestPropertySource(properties = {
+        "smart-wallet.datasource.replica.url=jdbc:h2:mem:replicadb;MODE=MYSQL;DB_CLOSE_DELAY=-1",
+        "smart-wallet.datasource.replica.username=sa",
+        "smart-wallet.datasource.replica.password=password"
+})
+public class ReadReplicaRoutingITest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void readOnlyTransaction_isRoutedToReplica() {
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        String url = readOnly.execute(status -> currentConnectionUrl());
+
+        assertTrue(url.contains("replicadb"), "Expected replica, but was " + url);
+    }
+
+    @Test
+    void readWriteTransaction_isRoutedToPrimary() {
+
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+
+        String url = readWrite.execute(status -> currentConnectionUrl());
+
+        assertTrue(url.contains("testdb"), "Expected primary, but was " + url);
+    }
+
+    private String currentConnectionUrl() {
+
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            return connection.getMetaData().getURL();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+}
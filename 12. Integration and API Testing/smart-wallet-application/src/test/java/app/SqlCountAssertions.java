@@ -0,0 +1,30 @@
+package app;
+
+import app.monitoring.StatementCountInspector;
+import lombok.experimental.UtilityClass;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Броят се statement-ите, изпълнени от текущата нишка (тестовата нишка или MockMvc заявката)
+@UtilityClass
+public class SqlCountAssertions {
+
+    public static void resetSqlCount() {
+        StatementCountInspector.reset();
+    }
+
+    public static void assertSelectCount(long expected) {
+        assertEquals(expected, StatementCountInspector.currentSelectCount(), "Unexpected number of SELECT statements");
+    }
+
+    public static void assertStatementCount(long expected) {
+        assertEquals(expected, StatementCountInspector.currentCount(), "Unexpected number of SQL statements");
+    }
+
+    public static void assertMaxStatementCount(long max) {
+
+        long actual = StatementCountInspector.currentCount();
+        assertTrue(actual <= max, "Expected at most %d SQL statements, but were %d".formatted(max, actual));
+    }
+}
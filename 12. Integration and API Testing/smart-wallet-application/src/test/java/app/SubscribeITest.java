@@ -2,26 +2,20 @@ package app;
 
 
 import app.subscription.model.Subscription;
-import app.subscription.model.SubscriptionPeriod;
 import app.subscription.model.SubscriptionStatus;
 import app.subscription.model.SubscriptionType;
 import app.subscription.repository.SubscriptionRepository;
 import app.subscription.service.SubscriptionService;
 import app.transaction.model.Transaction;
 import app.transaction.model.TransactionStatus;
-import app.user.model.Country;
 import app.user.model.User;
 import app.user.service.UserService;
 import app.wallet.model.Wallet;
 import app.wallet.model.WalletStatus;
 import app.wallet.repository.WalletRepository;
 import app.web.dto.RegisterRequest;
-import app.web.dto.UpgradeRequest;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.test.annotation.DirtiesContext;
-import org.springframework.test.context.ActiveProfiles;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -32,9 +26,9 @@ import static org.hamcrest.Matchers.comparesEqualTo;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.*;
 
-@ActiveProfiles("test")
-@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD) // Reset the context before each test method to ensure a clean state. Works only for H2 database.
-@SpringBootTest // Integration Test (Load the complete Spring Application Context - all beans)
+// Integration Test (Load the complete Spring Application Context - all beans).
+// Чиста база преди всеки тест без нов context - виж IntegrationTest / TruncateTablesTestExecutionListener
+@IntegrationTest
 public class SubscribeITest {
 
     // Current Test Coverage: 29%
@@ -61,20 +55,12 @@ public class SubscribeITest {
     void subscribeToPlan_happyPath() {
 
         // Given
-        RegisterRequest registerRequest = RegisterRequest.builder()
-                .username("Dimitar2")
-                .password("123123")
-                .country(Country.BULGARIA)
-                .build();
+        RegisterRequest registerRequest = TestBuilder.aRegisterRequest("Dimitar2");
         // Wallet has 20 EUR
         User registeredUser = userService.register(registerRequest);
-        UpgradeRequest upgradeRequest = UpgradeRequest.builder()
-                .subscriptionPeriod(SubscriptionPeriod.MONTHLY)
-                .walletId(registeredUser.getWallets().get(0).getId())
-                .build();
 
         // When
-        Transaction transaction = subscriptionService.upgrade(registeredUser, SubscriptionType.PREMIUM, upgradeRequest);
+        Transaction transaction = subscriptionService.upgrade(registeredUser, SubscriptionType.PREMIUM, TestBuilder.aMonthlyUpgradeRequest(registeredUser.getWallets().get(0).getId()));
 
         // Then
         // 1. SUCCEEDED transaction status
@@ -97,11 +83,7 @@ public class SubscribeITest {
     void whenNewUserRegister_thenDefaultSubscriptionAndActiveWalletAreCreated() {
 
         // Given
-        RegisterRequest registerRequest = RegisterRequest.builder()
-                .username("DimitarPeev")
-                .password("123123")
-                .country(Country.BULGARIA)
-                .build();
+        RegisterRequest registerRequest = TestBuilder.aRegisterRequest("DimitarPeev");
 
         // When
         User registeredUser = userService.register(registerRequest);
@@ -0,0 +1,151 @@
+package app;
+
+import app.subscription.model.Subscription;
+import app.subscription.model.SubscriptionStatus;
+import app.subscription.model.SubscriptionType;
+import app.subscription.repository.RenewalCheckpointRepository;
+import app.subscription.repository.SubscriptionRepository;
+import app.subscription.service.SubscriptionRenewalService;
+import app.transaction.model.Transaction;
+import app.transaction.model.TransactionStatus;
+import app.transaction.repository.TransactionRepository;
+import app.transaction.service.TransactionService;
+import app.user.model.User;
+import app.user.service.UserService;
+import app.wallet.model.Wallet;
+import app.wallet.repository.WalletRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.comparesEqualTo;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@IntegrationTest
+public class SubscriptionRenewalITest {
+
+    private static final int CHUNK_SIZE = 2;
+    // 3 chunk-а: 2 + 2 + 1
+    private static final int EXPIRED_SUBSCRIPTIONS = 5;
+    private static final BigDecimal PREMIUM_MONTHLY_PRICE = new BigDecimal("19.99");
+
+    @Autowired
+    private SubscriptionRenewalService subscriptionRenewalService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @Autowired
+    private RenewalCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    // Context-ът е споделен (без собствен @TestPropertySource / @MockitoSpyBean) - полетата се подменят само за този тест
+    // и след него се връщат точно стойностите отпреди, каквото и да е конфигурирано, дори тестът да е паднал
+    private SubscriptionRenewalService renewalTarget;
+    private Object originalChunkSize;
+    private Object originalTransactionService;
+
+    @BeforeEach
+    void setUp() {
+
+        renewalTarget = AopTestUtils.getUltimateTargetObject(subscriptionRenewalService);
+        originalChunkSize = ReflectionTestUtils.getField(renewalTarget, "chunkSize");
+        originalTransactionService = ReflectionTestUtils.getField(renewalTarget, "transactionService");
+        ReflectionTestUtils.setField(renewalTarget, "chunkSize", CHUNK_SIZE);
+    }
+
+    @AfterEach
+    void tearDown() {
+
+        ReflectionTestUtils.setField(renewalTarget, "chunkSize", originalChunkSize);
+        ReflectionTestUtils.setField(renewalTarget, "transactionService", originalTransactionService);
+    }
+
+    @Test
+    void givenRunStoppedInTheSecondChunk_whenRunAgain_thenContinuesFromCheckpointAndChargesEachSubscriptionOnce() {
+
+        // Given
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < EXPIRED_SUBSCRIPTIONS; i++) {
+            users.add(registerUserWithExpiredPremiumSubscription("renewal" + i));
+        }
+
+        // Вторият chunk пада преди commit - все едно процесът е спрял по средата на run-а
+        AtomicInteger chunks = new AtomicInteger();
+        TransactionService crashingOnSecondChunk = mock(TransactionService.class);
+        when(crashingOnSecondChunk.createNewTransactions(anyList())).thenAnswer(invocation -> {
+            if (chunks.incrementAndGet() == 2) {
+                throw new IllegalStateException("Simulated crash in the second chunk");
+            }
+            return transactionService.createNewTransactions(invocation.getArgument(0));
+        });
+        ReflectionTestUtils.setField(renewalTarget, "transactionService", crashingOnSecondChunk);
+
+        assertThrows(IllegalStateException.class, () -> subscriptionRenewalService.renewExpiringSubscriptions());
+        assertEquals(CHUNK_SIZE, checkpointRepository.findAll().get(0).getProcessedCount());
+        assertFalse(checkpointRepository.findAll().get(0).isCompleted());
+
+        // When
+        ReflectionTestUtils.setField(renewalTarget, "transactionService", originalTransactionService);
+        subscriptionRenewalService.renewExpiringSubscriptions();
+
+        // Then
+        assertEquals(EXPIRED_SUBSCRIPTIONS, checkpointRepository.findAll().get(0).getProcessedCount());
+        assertTrue(checkpointRepository.findAll().get(0).isCompleted());
+
+        for (User user : users) {
+            // 20.00 EUR - 19.99 EUR = 0.01 EUR - таксуван точно веднъж
+            Wallet wallet = walletRepository.findAllByOwnerUsername(user.getUsername()).get(0);
+            assertThat(wallet.getBalance(), comparesEqualTo(new BigDecimal("0.01")));
+
+            List<Transaction> renewals = transactionRepository.findAllByOwnerIdOrderByCreatedOnDesc(user.getId()).stream()
+                    .filter(transaction -> transaction.getDescription() != null && transaction.getDescription().startsWith("Renewal of"))
+                    .toList();
+            assertEquals(1, renewals.size());
+            assertEquals(TransactionStatus.SUCCEEDED, renewals.get(0).getStatus());
+
+            Subscription active = subscriptionRepository.findByStatusAndOwnerId(SubscriptionStatus.ACTIVE, user.getId()).orElseThrow();
+            assertEquals(SubscriptionType.PREMIUM, active.getType());
+            assertTrue(active.getCompletedOn().isAfter(LocalDateTime.now()));
+        }
+    }
+
+    // Регистрацията създава DEFAULT абонамент - превръщаме го в изтекъл PREMIUM
+    private User registerUserWithExpiredPremiumSubscription(String username) {
+
+        User user = userService.register(TestBuilder.aRegisterRequest(username));
+
+        Subscription subscription = subscriptionRepository.findByStatusAndOwnerId(SubscriptionStatus.ACTIVE, user.getId()).orElseThrow();
+        subscription.setType(SubscriptionType.PREMIUM);
+        subscription.setPrice(PREMIUM_MONTHLY_PRICE);
+        subscription.setRenewalAllowed(true);
+        subscription.setCompletedOn(LocalDateTime.now().minusDays(1));
+        subscriptionRepository.save(subscription);
+
+        return user;
+    }
+}
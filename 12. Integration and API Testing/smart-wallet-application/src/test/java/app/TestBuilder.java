@@ -9,6 +9,8 @@ import app.user.model.User;
 import app.user.model.UserRole;
 import app.wallet.model.Wallet;
 import app.wallet.model.WalletStatus;
+import app.web.dto.RegisterRequest;
+import app.web.dto.UpgradeRequest;
 import lombok.experimental.UtilityClass;
 
 import java.math.BigDecimal;
@@ -60,4 +62,21 @@ public class TestBuilder {
 
         return user;
     }
-}
\ No newline at end of file
+
+    public static RegisterRequest aRegisterRequest(String username) {
+
+        return RegisterRequest.builder()
+                .username(username)
+                .password("123123")
+                .country(Country.BULGARIA)
+                .build();
+    }
+
+    public static UpgradeRequest aMonthlyUpgradeRequest(UUID walletId) {
+
+        return UpgradeRequest.builder()
+                .subscriptionPeriod(SubscriptionPeriod.MONTHLY)
+                .walletId(walletId)
+                .build();
+    }
+}
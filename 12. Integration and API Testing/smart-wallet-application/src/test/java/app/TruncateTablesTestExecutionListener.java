@@ -0,0 +1,42 @@
+package app;
+
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestContext;
+import org.springframework.test.context.support.AbstractTestExecutionListener;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+// Празна база преди всеки тест, без да се вдига нов context: TRUNCATE на всички таблици (H2) + изчистване на кешовете.
+// Не е rollback - работи и за тестове, които пускат нишки или разчитат на commit (IdempotencyITest, WalletUnlockConcurrencyITest).
+public class TruncateTablesTestExecutionListener extends AbstractTestExecutionListener {
+
+    private static final String TABLES_QUERY = "SELECT TABLE_NAME FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_TYPE = 'BASE TABLE'";
+
+    // След DependencyInjectionTestExecutionListener и преди @BeforeEach
+    @Override
+    public int getOrder() {
+        return 5000;
+    }
+
+    @Override
+    public void beforeTestMethod(TestContext testContext) {
+
+        ApplicationContext applicationContext = testContext.getApplicationContext();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(applicationContext.getBean(DataSource.class));
+
+        List<String> tables = jdbcTemplate.queryForList(TABLES_QUERY, String.class);
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        try {
+            tables.forEach(table -> jdbcTemplate.execute("TRUNCATE TABLE \"" + table + "\""));
+        } finally {
+            jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE");
+        }
+
+        // @Cacheable("users") и т.н. - иначе тестът може да види потребители от предишния
+        applicationContext.getBeanProvider(CacheManager.class).ifAvailable(cacheManager ->
+                cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear()));
+    }
+}
@@ -0,0 +1,77 @@
+package app;
+
+import app.exception.DomainException;
+import app.subscription.model.SubscriptionType;
+import app.subscription.service.SubscriptionService;
+import app.user.model.User;
+import app.user.service.UserService;
+import app.wallet.repository.WalletRepository;
+import app.wallet.service.WalletService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@IntegrationTest
+public class WalletUnlockConcurrencyITest {
+
+    private static final int CONCURRENT_CLICKS = 8;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private SubscriptionService subscriptionService;
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Test
+    void whenManyConcurrentUnlocks_thenPlanLimitIsNotExceeded() throws Exception {
+
+        // Given - PREMIUM user with 1 wallet, limit is 2
+        User registeredUser = userService.register(TestBuilder.aRegisterRequest("concurrentUser"));
+        subscriptionService.upgrade(registeredUser, SubscriptionType.PREMIUM, TestBuilder.aMonthlyUpgradeRequest(registeredUser.getWallets().get(0).getId()));
+        User user = userService.getById(registeredUser.getId());
+
+        // When - all threads click "unlock" at the same time
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_CLICKS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < CONCURRENT_CLICKS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    walletService.unlockNewWallet(user);
+                    succeeded.incrementAndGet();
+                } catch (DomainException e) {
+                    // Max wallet count reached - any other failure (deadlock, lock timeout, NPE) reaches future.get() and fails the test
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Then
+        assertEquals(1, succeeded.get());
+        assertEquals(CONCURRENT_CLICKS - 1, rejected.get());
+        assertEquals(2, walletRepository.countByOwnerId(user.getId()));
+    }
+}
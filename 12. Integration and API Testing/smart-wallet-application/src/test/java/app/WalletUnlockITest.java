@@ -0,0 +1,57 @@
+package app;
+
+import app.exception.DomainException;
+import app.user.model.Country;
+import app.user.model.User;
+import app.user.service.UserService;
+import app.wallet.model.Wallet;
+import app.wallet.repository.WalletRepository;
+import app.wallet.service.WalletService;
+import app.web.dto.RegisterRequest;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+
+import static app.SqlCountAssertions.assertMaxStatementCount;
+import static app.SqlCountAssertions.resetSqlCount;
+import static org.junit.jupiter.api.Assertions.*;
+
+@IntegrationTest
+public class WalletUnlockITest {
+
+    // User row lock + active plan type + wallets count + wallet insert
+    private static final long MAX_UNLOCK_STATEMENTS = 4;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Test
+    void whenUnlockNewWallet_thenSubscriptionsAreNotLoadedAndStatementCountIsBounded() {
+
+        // Given
+        RegisterRequest registerRequest = new RegisterRequest("unlockUser", "123123", Country.BULGARIA);
+        User registeredUser = userService.register(registerRequest);
+        User user = userService.getById(registeredUser.getId());
+
+        resetSqlCount();
+
+        // When
+        // DEFAULT plan with one wallet -> max wallets reached
+        assertThrows(DomainException.class, () -> walletService.unlockNewWallet(user));
+
+        // Then
+        assertFalse(Hibernate.isInitialized(user.getSubscriptions()));
+        assertMaxStatementCount(MAX_UNLOCK_STATEMENTS);
+
+        List<Wallet> wallets = walletRepository.findAllByOwnerUsername("unlockUser");
+        assertEquals(1, wallets.size());
+    }
+}
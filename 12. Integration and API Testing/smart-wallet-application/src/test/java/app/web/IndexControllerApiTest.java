@@ -1,6 +1,9 @@
 package app.web;
 
 import app.exception.UsernameAlreadyExistException;
+import app.monitoring.SqlBudgetProperties;
+import app.ratelimit.RateLimitProperties;
+import app.ratelimit.RateLimiter;
 import app.security.AuthenticationMetadata;
 import app.user.model.UserRole;
 import app.user.service.UserService;
@@ -8,6 +11,7 @@ import app.web.dto.RegisterRequest;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
@@ -25,6 +29,9 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(IndexController.class)
+// WebMvcConfiguration регистрира RateLimitInterceptor, а StatementCountFilter е Filter bean -
+// техните зависимости (обикновени @Component-и) не влизат в @WebMvcTest slice-а
+@Import({RateLimitProperties.class, RateLimiter.class, SqlBudgetProperties.class})
 public class IndexControllerApiTest {
 
     // ВАЖНО: Когато тествам контролери трябва да Mock-на всички dependencies на този контролер с анотация @MockitoBean!!!
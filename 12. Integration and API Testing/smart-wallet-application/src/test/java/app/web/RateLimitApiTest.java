@@ -0,0 +1,98 @@
+package app.web;
+
+import app.monitoring.SqlBudgetProperties;
+import app.ratelimit.RateLimitProperties;
+import app.ratelimit.RateLimiter;
+import app.security.AuthenticationMetadata;
+import app.user.model.UserRole;
+import app.user.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.util.UUID;
+
+import static app.TestBuilder.aRandomUser;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// RateLimitInterceptor през целия MVC stack: избрания URI pattern, ключа на клиента и отговора 429.
+// Bucket-ите живеят в RateLimiter-а на кеширания context - всеки тест ползва свой IP адрес или потребител.
+@WebMvcTest(IndexController.class)
+@Import({RateLimitProperties.class, RateLimiter.class, SqlBudgetProperties.class})
+@TestPropertySource(properties = {
+        "smart-wallet.rate-limit.routes[/register].capacity=2",
+        "smart-wallet.rate-limit.routes[/register].refill-period=PT1M",
+        "smart-wallet.rate-limit.routes[/home].capacity=1",
+        "smart-wallet.rate-limit.routes[/home].refill-period=PT1M"
+})
+public class RateLimitApiTest {
+
+    @MockitoBean
+    private UserService userService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void whenRouteLimitIsExceeded_thenTooManyRequestsWithRetryAfter() throws Exception {
+
+        mockMvc.perform(get("/register").with(remoteAddr("10.0.0.1"))).andExpect(status().isOk());
+        mockMvc.perform(get("/register").with(remoteAddr("10.0.0.1"))).andExpect(status().isOk());
+
+        // 2 заявки на минута - следващия токен е след 30 секунди
+        mockMvc.perform(get("/register").with(remoteAddr("10.0.0.1")))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "30"));
+    }
+
+    @Test
+    void givenAnonymousClientOverTheLimit_whenAnotherIpCalls_thenItIsNotLimited() throws Exception {
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/register").with(remoteAddr("10.0.0.2"))).andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/register").with(remoteAddr("10.0.0.2"))).andExpect(status().isTooManyRequests());
+
+        mockMvc.perform(get("/register").with(remoteAddr("10.0.0.3"))).andExpect(status().isOk());
+    }
+
+    @Test
+    void givenLoggedUserOverTheLimit_whenAnotherUserCallsFromTheSameIp_thenItIsNotLimited() throws Exception {
+
+        when(userService.getById(any())).thenReturn(aRandomUser());
+        AuthenticationMetadata first = new AuthenticationMetadata(UUID.randomUUID(), "User123", "123123", UserRole.USER, true);
+        AuthenticationMetadata second = new AuthenticationMetadata(UUID.randomUUID(), "User456", "123123", UserRole.USER, true);
+
+        // Логнатите потребители се броят по userId, не по IP
+        mockMvc.perform(get("/home").with(user(first)).with(remoteAddr("10.0.0.4"))).andExpect(status().isOk());
+        mockMvc.perform(get("/home").with(user(first)).with(remoteAddr("10.0.0.4"))).andExpect(status().isTooManyRequests());
+
+        mockMvc.perform(get("/home").with(user(second)).with(remoteAddr("10.0.0.4"))).andExpect(status().isOk());
+    }
+
+    @Test
+    void whenRouteHasNoLimit_thenRequestsAreNeverRejected() throws Exception {
+
+        for (int i = 0; i < 10; i++) {
+            mockMvc.perform(get("/").with(remoteAddr("10.0.0.5"))).andExpect(status().isOk());
+        }
+    }
+
+    private static RequestPostProcessor remoteAddr(String remoteAddr) {
+
+        return request -> {
+            request.setRemoteAddr(remoteAddr);
+            return request;
+        };
+    }
+}
@@ -1,11 +1,15 @@
 package app.web;
 
+import app.monitoring.SqlBudgetProperties;
+import app.ratelimit.RateLimitProperties;
+import app.ratelimit.RateLimiter;
 import app.security.AuthenticationMetadata;
 import app.user.model.UserRole;
 import app.user.service.UserService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
@@ -21,6 +25,9 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(UserController.class)
+// WebMvcConfiguration регистрира RateLimitInterceptor, а StatementCountFilter е Filter bean -
+// техните зависимости (обикновени @Component-и) не влизат в @WebMvcTest slice-а
+@Import({RateLimitProperties.class, RateLimiter.class, SqlBudgetProperties.class})
 public class UserControllerApiTest {
 
     @MockitoBean
@@ -1,18 +1,58 @@
 package app.aspect;
 
+import app.monitoring.SlowCall;
+import app.monitoring.SlowCallRecorder;
+import app.monitoring.StatementCountInspector;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.After;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.lang.reflect.Method;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
 @Slf4j
 @Aspect // Клас
 @Component
 public class LoggingAspect {
 
+    private static final String DEFAULT_TIMER_NAME = "smart-wallet.method.execution";
+    private static final String USER_CONTROLLER_CALLS = "smart-wallet.user-controller.calls";
+    private static final int MAX_ARGUMENT_LENGTH = 64;
+
+    private final MeterRegistry meterRegistry;
+    private final SlowCallRecorder slowCallRecorder;
+
+    // Използва се, когато @VeryImportant не задава slowThresholdMs
+    @Value("${smart-wallet.slow-call.threshold-ms:500}")
+    private long defaultSlowThresholdMs;
+
+    // Timer-ите и Counter-ите се създават веднъж за метод - след това advice-а само чете от map-а (без lock)
+    private final Map<Method, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<Method, Counter> counters = new ConcurrentHashMap<>();
+
+    @Autowired
+    public LoggingAspect(MeterRegistry meterRegistry, SlowCallRecorder slowCallRecorder) {
+        this.meterRegistry = meterRegistry;
+        this.slowCallRecorder = slowCallRecorder;
+    }
+
 //    @After("execution(* app.web.IndexController.*(..))")
 //    public void logIndexControllerMethods() {
 //
@@ -20,10 +60,16 @@ public class LoggingAspect {
 //    }
 
     // Advice - метод с допълнителна логика
+    // Вместо System.out (synchronized) - lock-free Micrometer counter за всеки метод
     @After("bean(userController)")  // Pointcut - "regex" for methods
     public void logIndexControllerMethods(JoinPoint joinPoint) {
 
-        System.out.println("Hey, another method in UserController was executed!");
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+
+        counters.computeIfAbsent(method, m -> Counter.builder(USER_CONTROLLER_CALLS)
+                        .tag("method", m.getName())
+                        .register(meterRegistry))
+                .increment();
     }
 
 //    @Before("@annotation(app.aspect.VeryImportant)")
@@ -49,13 +95,63 @@ public class LoggingAspect {
 //        log.info("User: {}", principal.getUsername());
 //    }
 
-    @Around(value = "@annotation(app.aspect.VeryImportant)")
-    public Object logVeryImportantMethodExecution(ProceedingJoinPoint proceedingJoinPoint) throws Throwable {
+    @Around(value = "@annotation(veryImportant)")
+    public Object logVeryImportantMethodExecution(ProceedingJoinPoint proceedingJoinPoint, VeryImportant veryImportant) throws Throwable {
+
+        // Sampling - не измерваме всяко извикване, ако sampleRate < 1
+        if (veryImportant.sampleRate() < 1.0 && ThreadLocalRandom.current().nextDouble() >= veryImportant.sampleRate()) {
+            return proceedingJoinPoint.proceed();
+        }
+
+        Method method = ((MethodSignature) proceedingJoinPoint.getSignature()).getMethod();
+        long statementsBefore = StatementCountInspector.currentCount();
+        long start = System.nanoTime();
+
+        try {
+            return proceedingJoinPoint.proceed();
+        } finally {
+            long elapsedNanos = System.nanoTime() - start;
+            getTimer(method, veryImportant).record(elapsedNanos, TimeUnit.NANOSECONDS);
+
+            long slowThresholdMs = veryImportant.slowThresholdMs() > 0 ? veryImportant.slowThresholdMs() : defaultSlowThresholdMs;
+            if (elapsedNanos > TimeUnit.MILLISECONDS.toNanos(slowThresholdMs)) {
+                slowCallRecorder.record(new SlowCall(
+                        Instant.now(),
+                        method.getDeclaringClass().getSimpleName() + "." + method.getName(),
+                        summarizeArguments(proceedingJoinPoint.getArgs()),
+                        Thread.currentThread().getName(),
+                        StatementCountInspector.currentCount() - statementsBefore,
+                        TimeUnit.NANOSECONDS.toMillis(elapsedNanos)));
+            }
+        }
+    }
+
+    // Само прости стойности (id-та, числа, enum-и) - за entity-та и DTO-та пишем само типа
+    private static String summarizeArguments(Object[] args) {
+
+        return Arrays.stream(args)
+                .map(arg -> {
+                    if (arg == null) {
+                        return "null";
+                    }
+                    if (arg instanceof Number || arg instanceof Enum<?> || arg instanceof UUID || arg instanceof Boolean) {
+                        return arg.toString();
+                    }
+                    if (arg instanceof CharSequence text) {
+                        return text.length() > MAX_ARGUMENT_LENGTH ? text.subSequence(0, MAX_ARGUMENT_LENGTH) + "..." : text.toString();
+                    }
+                    return arg.getClass().getSimpleName();
+                })
+                .collect(Collectors.joining(", ", "[", "]"));
+    }
 
-        System.out.println("Before method execution!");
-        Object methodResult = proceedingJoinPoint.proceed();
-        System.out.println("After method execution!");
+    private Timer getTimer(Method method, VeryImportant veryImportant) {
 
-        return methodResult;
+        return timers.computeIfAbsent(method, m -> Timer.builder(veryImportant.name().isBlank() ? DEFAULT_TIMER_NAME : veryImportant.name())
+                .tag("class", m.getDeclaringClass().getSimpleName())
+                .tag("method", m.getName())
+                .publishPercentiles(veryImportant.percentiles())
+                .publishPercentileHistogram()
+                .register(meterRegistry));
     }
 }
@@ -9,4 +9,15 @@ import java.lang.annotation.Target;
 @Retention(value = RetentionPolicy.RUNTIME)
 public @interface VeryImportant {
 
-}
\ No newline at end of file
+    // Име на Timer-а в Micrometer. Ако е празно -> "smart-wallet.method.execution"
+    String name() default "";
+
+    // Кои percentile-и да се публикуват (p50, p95, p99)
+    double[] percentiles() default {0.5, 0.95, 0.99};
+
+    // Над този праг (в милисекунди) извикването се записва като бавно. 0 = smart-wallet.slow-call.threshold-ms
+    long slowThresholdMs() default 0;
+
+    // Каква част от извикванията да се измерват (1.0 = всички)
+    double sampleRate() default 1.0;
+}
@@ -0,0 +1,29 @@
+package app.monitoring;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// GET /actuator/pinning - местата, на които virtual threads са били pin-нати, подредени по брой
+@Component
+@Endpoint(id = "pinning")
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class PinningEndpoint {
+
+    private final VirtualThreadPinningMonitor pinningMonitor;
+
+    @Autowired
+    public PinningEndpoint(VirtualThreadPinningMonitor pinningMonitor) {
+        this.pinningMonitor = pinningMonitor;
+    }
+
+    @ReadOperation
+    public List<PinnedSite> getPinnedSites() {
+        return pinningMonitor.getPinnedSites();
+    }
+}
@@ -0,0 +1,11 @@
+package app.monitoring;
+
+import java.time.Instant;
+
+public record SlowCall(Instant timestamp,
+                       String method,
+                       String arguments,
+                       String thread,
+                       long statementCount,
+                       long elapsedMs) {
+}
@@ -0,0 +1,70 @@
+package app.monitoring;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Пази последните N бавни извиквания в ring buffer без lock-ове.
+// Най-старите записи се презаписват, когато буфера се напълни.
+@Slf4j
+@Component
+public class SlowCallRecorder {
+
+    private final AtomicReferenceArray<SlowCall> buffer;
+    private final AtomicLong sequence = new AtomicLong();
+
+    // Последния път, когато сме логнали бавно извикване за даден метод
+    private final Map<String, AtomicLong> lastLoggedAt = new ConcurrentHashMap<>();
+    private final long logIntervalNanos;
+
+    public SlowCallRecorder(@Value("${smart-wallet.slow-call.buffer-size:256}") int bufferSize,
+                            @Value("${smart-wallet.slow-call.log-interval-ms:10000}") long logIntervalMs) {
+
+        this.buffer = new AtomicReferenceArray<>(bufferSize);
+        this.logIntervalNanos = TimeUnit.MILLISECONDS.toNanos(logIntervalMs);
+    }
+
+    public void record(SlowCall slowCall) {
+
+        int index = (int) (sequence.getAndIncrement() % buffer.length());
+        buffer.set(index, slowCall);
+
+        if (shouldLog(slowCall.method())) {
+            log.warn("Slow call [{}] took [{}] ms with [{}] SQL statements on thread [{}]. Arguments: {}",
+                    slowCall.method(), slowCall.elapsedMs(), slowCall.statementCount(), slowCall.thread(), slowCall.arguments());
+        }
+    }
+
+    public List<SlowCall> getSlowCalls() {
+
+        List<SlowCall> slowCalls = new ArrayList<>(buffer.length());
+        for (int i = 0; i < buffer.length(); i++) {
+            SlowCall slowCall = buffer.get(i);
+            if (slowCall != null) {
+                slowCalls.add(slowCall);
+            }
+        }
+
+        slowCalls.sort(Comparator.comparing(SlowCall::timestamp).reversed());
+        return slowCalls;
+    }
+
+    // Rate limit - най-много един log ред на метод за logIntervalNanos
+    private boolean shouldLog(String method) {
+
+        AtomicLong lastLogged = lastLoggedAt.computeIfAbsent(method, m -> new AtomicLong(System.nanoTime() - logIntervalNanos));
+        long previous = lastLogged.get();
+        long now = System.nanoTime();
+
+        return now - previous >= logIntervalNanos && lastLogged.compareAndSet(previous, now);
+    }
+}
@@ -0,0 +1,26 @@
+package app.monitoring;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// GET /actuator/slowcalls
+@Component
+@Endpoint(id = "slowcalls")
+public class SlowCallsEndpoint {
+
+    private final SlowCallRecorder slowCallRecorder;
+
+    @Autowired
+    public SlowCallsEndpoint(SlowCallRecorder slowCallRecorder) {
+        this.slowCallRecorder = slowCallRecorder;
+    }
+
+    @ReadOperation
+    public List<SlowCall> getSlowCalls() {
+        return slowCallRecorder.getSlowCalls();
+    }
+}
@@ -0,0 +1,25 @@
+package app.monitoring;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// smart-wallet.sql-budget.default-budget=20
+// smart-wallet.sql-budget.endpoints[/wallets]=10
+@Data
+@Component
+@ConfigurationProperties(prefix = "smart-wallet.sql-budget")
+public class SqlBudgetProperties {
+
+    private int defaultBudget = 20;
+
+    // URI pattern -> максимален брой SQL statement-и за една заявка
+    private Map<String, Integer> endpoints = new HashMap<>();
+
+    public int getBudgetFor(String uriPattern) {
+        return endpoints.getOrDefault(uriPattern, defaultBudget);
+    }
+}
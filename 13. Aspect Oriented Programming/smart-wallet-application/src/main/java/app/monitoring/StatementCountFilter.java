@@ -0,0 +1,79 @@
+package app.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+// Брои SQL statement-ите за всяка HTTP заявка:
+// - header X-SQL-Statement-Count (добавя се точно преди response-а да бъде commit-нат или след веригата, ако още не е)
+// - метрика smart-wallet.http.sql.statements
+// - warning, ако заявката надвиши бюджета за endpoint-а
+@Slf4j
+@Component
+public class StatementCountFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENT_COUNT_HEADER = "X-SQL-Statement-Count";
+    private static final String STATEMENTS_METRIC = "smart-wallet.http.sql.statements";
+
+    private final MeterRegistry meterRegistry;
+    private final SqlBudgetProperties sqlBudgetProperties;
+
+    @Autowired
+    public StatementCountFilter(MeterRegistry meterRegistry, SqlBudgetProperties sqlBudgetProperties) {
+        this.meterRegistry = meterRegistry;
+        this.sqlBudgetProperties = sqlBudgetProperties;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+
+        StatementCountInspector.reset();
+
+        OnCommittedResponseWrapper countingResponse = new OnCommittedResponseWrapper(response) {
+            @Override
+            protected void onResponseCommitted() {
+                setHeader(STATEMENT_COUNT_HEADER, String.valueOf(StatementCountInspector.currentCount()));
+            }
+        };
+
+        try {
+            filterChain.doFilter(request, countingResponse);
+            // Response-ът не е flush-нат във веригата (напр. празно тяло) - onResponseCommitted() още не е извикан
+            if (!response.isCommitted()) {
+                response.setHeader(STATEMENT_COUNT_HEADER, String.valueOf(StatementCountInspector.currentCount()));
+            }
+        } finally {
+            recordStatementCount(request);
+        }
+    }
+
+    private void recordStatementCount(HttpServletRequest request) {
+
+        long statementCount = StatementCountInspector.currentCount();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+        DistributionSummary.builder(STATEMENTS_METRIC)
+                .tag("uri", uri)
+                .tag("method", request.getMethod())
+                .register(meterRegistry)
+                .record(statementCount);
+
+        int budget = sqlBudgetProperties.getBudgetFor(uri);
+        if (statementCount > budget) {
+            log.warn("Request [{} {}] executed [{}] SQL statements ({} selects), budget is [{}]. Possible N+1 query.",
+                    request.getMethod(), uri, statementCount, StatementCountInspector.currentSelectCount(), budget);
+        }
+    }
+}
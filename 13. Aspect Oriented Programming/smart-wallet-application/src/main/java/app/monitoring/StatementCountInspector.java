@@ -0,0 +1,40 @@
+package app.monitoring;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Hibernate извиква inspect() за всеки SQL statement, преди да го изпрати към базата.
+// Броим statement-ите на текущата нишка - не променяме самия SQL.
+public class StatementCountInspector implements StatementInspector {
+
+    private static final int ALL = 0;
+    private static final int SELECTS = 1;
+
+    private static final ThreadLocal<long[]> STATEMENT_COUNT = ThreadLocal.withInitial(() -> new long[2]);
+
+    @Override
+    public String inspect(String sql) {
+
+        long[] counts = STATEMENT_COUNT.get();
+        counts[ALL]++;
+        if (sql.regionMatches(true, 0, "select", 0, 6) || sql.regionMatches(true, 0, "with", 0, 4)) {
+            counts[SELECTS]++;
+        }
+
+        return sql;
+    }
+
+    public static long currentCount() {
+        return STATEMENT_COUNT.get()[ALL];
+    }
+
+    public static long currentSelectCount() {
+        return STATEMENT_COUNT.get()[SELECTS];
+    }
+
+    public static void reset() {
+
+        long[] counts = STATEMENT_COUNT.get();
+        counts[ALL] = 0;
+        counts[SELECTS] = 0;
+    }
+}
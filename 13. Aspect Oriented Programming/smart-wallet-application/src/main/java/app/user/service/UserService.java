@@ -3,6 +3,7 @@ package app.user.service;
 import app.aspect.VeryImportant;
 import app.exception.DomainException;
 import app.exception.UsernameAlreadyExistException;
+import app.notification.event.UserRegisteredEvent;
 import app.notification.service.NotificationService;
 import app.security.AuthenticationMetadata;
 import app.subscription.model.Subscription;
@@ -18,6 +19,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -39,18 +41,21 @@ public class UserService implements UserDetailsService {
     private final SubscriptionService subscriptionService;
     private final WalletService walletService;
     private final NotificationService notificationService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public UserService(UserRepository userRepository,
                        PasswordEncoder passwordEncoder,
                        SubscriptionService subscriptionService,
-                       WalletService walletService, NotificationService notificationService) {
+                       WalletService walletService, NotificationService notificationService,
+                       ApplicationEventPublisher eventPublisher) {
 
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.subscriptionService = subscriptionService;
         this.walletService = walletService;
         this.notificationService = notificationService;
+        this.eventPublisher = eventPublisher;
     }
 
     // Register
@@ -74,8 +79,9 @@ public class UserService implements UserDetailsService {
         Wallet standardWallet = walletService.initilizeFirstWallet(user);
         user.setWallets(List.of(standardWallet)); // Has 1 wallet
 
-        // Persist new notification preference with isEnabled = false
-        notificationService.saveNotificationPreference(user.getId(), false, null);
+        // Preference-ът (isEnabled = false) се записва в notification-svc след commit - виж NotificationEventListener.
+        // Feign заявка тук би държала DB връзката през целия HTTP round trip.
+        eventPublisher.publishEvent(UserRegisteredEvent.builder().userId(user.getId()).build());
 
         log.info("Successfully create new user account for username [%s] and id [%s]".formatted(user.getUsername(), user.getId()));
 
@@ -125,11 +131,13 @@ public class UserService implements UserDetailsService {
     // В началото се изпълнява веднъж този метод и резултата се пази в кеш
     // Всяко следващо извикване на този метод ще се чете резултата от кеша и няма да се извиква четенето от базата
     @Cacheable("users")
+    @Transactional(readOnly = true)
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
 
-    @VeryImportant
+    @VeryImportant(name = "smart-wallet.user.get-by-id", slowThresholdMs = 200)
+    @Transactional(readOnly = true)
     public User getById(UUID id) {
 //        return userRepository.findById(id).orElseThrow(() -> new DomainException("User with id [%s] does not exist.".formatted(id)));
         Optional<User> user = userRepository.findById(id);
@@ -139,6 +147,33 @@ public class UserService implements UserDetailsService {
         return user.get();
     }
 
+    // Wallets page - user + wallets в една заявка
+    @Transactional(readOnly = true)
+    public User getByIdWithWallets(UUID id) {
+
+        return userRepository.findWithWalletsById(id).orElseThrow(() -> new DomainException("User with id [%s] does not exist.".formatted(id)));
+    }
+
+    // Subscription history page - user + subscriptions в една заявка
+    @Transactional(readOnly = true)
+    public User getByIdWithSubscriptions(UUID id) {
+
+        return userRepository.findWithSubscriptionsById(id).orElseThrow(() -> new DomainException("User with id [%s] does not exist.".formatted(id)));
+    }
+
+    // Home page - нужни са и wallets, и subscriptions.
+    // Две заявки в една транзакция - втората връща същия managed User с инициализирани subscriptions.
+    @Transactional(readOnly = true)
+    public User getByIdForHomePage(UUID id) {
+
+        User user = getByIdWithWallets(id);
+        User withSubscriptions = userRepository.findWithSubscriptionsById(id)
+                .orElseThrow(() -> new DomainException("User with id [%s] does not exist.".formatted(id)));
+        user.setSubscriptions(withSubscriptions.getSubscriptions());
+
+        return user;
+    }
+
     @CacheEvict(value = "users", allEntries = true)
     public void switchStatus(UUID userId) {
 
@@ -0,0 +1,104 @@
+package benchmark.support;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+
+// Сравнява два JMH JSON резултата по benchmark + @Param стойности.
+// Регресия е влошаване над threshold, което е и по-голямо от сумата на грешките (99.9% интервал) на двете измервания -
+// така шумът при малко итерации не чупи build-а.
+public class BaselineComparator {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final double threshold;
+
+    public BaselineComparator(double threshold) {
+        this.threshold = threshold;
+    }
+
+    public List<Comparison> compare(Path baseline, Path current) throws IOException {
+
+        Map<String, Score> baselineScores = read(baseline);
+        Map<String, Score> currentScores = read(current);
+
+        List<Comparison> comparisons = new ArrayList<>();
+        for (Map.Entry<String, Score> entry : currentScores.entrySet()) {
+            Score previous = baselineScores.get(entry.getKey());
+            comparisons.add(new Comparison(entry.getKey(), previous, entry.getValue(), threshold));
+        }
+
+        return comparisons;
+    }
+
+    private static Map<String, Score> read(Path path) throws IOException {
+
+        Map<String, Score> scores = new TreeMap<>();
+        for (JsonNode run : OBJECT_MAPPER.readTree(path.toFile())) {
+
+            Map<String, String> params = new TreeMap<>();
+            run.path("params").fields().forEachRemaining(param -> params.put(param.getKey(), param.getValue().asText()));
+
+            StringBuilder key = new StringBuilder(run.path("benchmark").asText());
+            params.forEach((name, value) -> key.append(' ').append(name).append('=').append(value));
+
+            JsonNode metric = run.path("primaryMetric");
+            scores.put(key.toString(), new Score(
+                    run.path("mode").asText(),
+                    metric.path("score").asDouble(),
+                    finiteOrZero(metric.path("scoreError").asDouble()),
+                    metric.path("scoreUnit").asText()));
+        }
+
+        return scores;
+    }
+
+    // При една итерация JMH записва scoreError като "NaN"
+    private static double finiteOrZero(double value) {
+        return Double.isFinite(value) ? value : 0;
+    }
+
+    public record Score(String mode, double score, double error, String unit) {
+
+        // thrpt - повече е по-добре; avgt, sample, ss - по-малко е по-добре
+        boolean higherIsBetter() {
+            return "thrpt".equals(mode);
+        }
+    }
+
+    public record Comparison(String benchmark, Score baseline, Score current, double threshold) {
+
+        // > 0 - влошаване, < 0 - подобрение (спрямо baseline)
+        public double change() {
+
+            if (baseline == null || baseline.score() == 0) {
+                return 0;
+            }
+
+            double delta = (current.score() - baseline.score()) / baseline.score();
+            return current.higherIsBetter() ? -delta : delta;
+        }
+
+        public boolean isRegression() {
+
+            return baseline != null
+                    && baseline.mode().equals(current.mode())
+                    && change() > threshold
+                    && Math.abs(current.score() - baseline.score()) > current.error() + baseline.error();
+        }
+
+        public String describe() {
+
+            if (baseline == null) {
+                return "NEW        %s: %.3f %s".formatted(benchmark, current.score(), current.unit());
+            }
+
+            return "%-10s %s: %.3f -> %.3f %s (%+.1f%%)".formatted(
+                    isRegression() ? "REGRESSION" : "OK",
+                    benchmark, baseline.score(), current.score(), current.unit(), change() * 100);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package benchmark.support;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+// Пуска benchmark-ите от classpath-а (генерирани от jmh-generator-annprocess), записва JSON резултата
+// и го сравнява с baseline-а. Настройките идват като system properties - виж exec-maven-plugin в jmh/pom.xml.
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, IOException {
+
+        String include = System.getProperty("benchmark.include", ".*");
+        Path result = Path.of(System.getProperty("benchmark.result", "target/jmh-result.json"));
+        Path baseline = Path.of(System.getProperty("benchmark.baseline", "baseline.json"));
+        double threshold = Double.parseDouble(System.getProperty("benchmark.threshold", "0.10"));
+        boolean updateBaseline = Boolean.parseBoolean(System.getProperty("benchmark.update-baseline", "false"));
+
+        Files.createDirectories(result.toAbsolutePath().getParent());
+        Options options = new OptionsBuilder()
+                .include(include)
+                .jvmArgsAppend(forwardedProperties())
+                .resultFormat(ResultFormatType.JSON)
+                .result(result.toString())
+                .build();
+        new Runner(options).run();
+
+        if (updateBaseline || !Files.exists(baseline)) {
+            Files.createDirectories(baseline.toAbsolutePath().getParent());
+            Files.copy(result, baseline, StandardCopyOption.REPLACE_EXISTING);
+            System.out.printf("Baseline %s updated from %s.%n", baseline, result);
+            return;
+        }
+
+        BaselineComparator comparator = new BaselineComparator(threshold);
+        List<BaselineComparator.Comparison> comparisons = comparator.compare(baseline, result);
+        comparisons.forEach(comparison -> System.out.println(comparison.describe()));
+
+        long regressions = comparisons.stream().filter(BaselineComparator.Comparison::isRegression).count();
+        if (regressions > 0) {
+            System.out.printf("%d benchmark(s) regressed by more than %.0f%% against %s.%n", regressions, threshold * 100, baseline);
+            System.exit(1);
+        }
+    }
+
+    // Настройките за самите benchmark-и (напр. benchmark.jdbc-url, benchmark.products) трябва да стигнат до fork-натите JVM-и
+    private static String[] forwardedProperties() {
+
+        return System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith("benchmark.jdbc-") || name.equals("benchmark.products"))
+                .map(name -> "-D%s=%s".formatted(name, System.getProperty(name)))
+                .toArray(String[]::new);
+    }
+}
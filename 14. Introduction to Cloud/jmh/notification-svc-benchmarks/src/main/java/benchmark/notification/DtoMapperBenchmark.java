@@ -0,0 +1,57 @@
+package benchmark.notification;
+
+import app.model.*;
+import app.web.dto.NotificationPreferenceResponse;
+import app.web.dto.NotificationResponse;
+import app.web.mapper.DtoMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoMapperBenchmark {
+
+    private NotificationPreference preference;
+    private Notification notification;
+
+    @Setup
+    public void setUp() {
+
+        preference = NotificationPreference.builder()
+                .id(UUID.randomUUID())
+                .userId(UUID.randomUUID())
+                .enabled(true)
+                .contactInfo("benchmark@smart-wallet.com")
+                .type(NotificationType.EMAIL)
+                .createdOn(LocalDateTime.now())
+                .updatedOn(LocalDateTime.now())
+                .build();
+
+        notification = Notification.builder()
+                .subject("New Smart Wallet Transaction")
+                .body("DEPOSIT transaction was successful processed for you with amount 20.00 EUR!")
+                .createdOn(LocalDateTime.now())
+                .userId(preference.getUserId())
+                .isDeleted(false)
+                .type(NotificationType.EMAIL)
+                .status(NotificationStatus.SUCCEEDED)
+                .build();
+    }
+
+    @Benchmark
+    public NotificationPreferenceResponse fromNotificationPreference() {
+        return DtoMapper.fromNotificationPreference(preference);
+    }
+
+    @Benchmark
+    public NotificationResponse fromNotification() {
+        return DtoMapper.fromNotification(notification);
+    }
+}
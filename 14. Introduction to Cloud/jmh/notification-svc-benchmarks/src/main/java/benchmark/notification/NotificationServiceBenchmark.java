@@ -0,0 +1,48 @@
+package benchmark.notification;
+
+import app.model.Notification;
+import app.service.NotificationService;
+import app.web.dto.NotificationRequest;
+import app.web.dto.NotificationTypeRequest;
+import app.web.dto.UpsertNotificationPreference;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// SELECT на preference-а + "изпращане" (MailSender stub) + INSERT на Notification
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NotificationServiceBenchmark {
+
+    private NotificationService notificationService;
+    private NotificationRequest notificationRequest;
+
+    @Setup(Level.Trial)
+    public void setUp(NotificationSvcContext context) {
+
+        notificationService = context.getBean(NotificationService.class);
+
+        UUID userId = UUID.randomUUID();
+        notificationService.upsertPreference(UpsertNotificationPreference.builder()
+                .userId(userId)
+                .type(NotificationTypeRequest.EMAIL)
+                .contactInfo("benchmark@smart-wallet.com")
+                .notificationEnabled(true)
+                .build());
+
+        notificationRequest = new NotificationRequest();
+        notificationRequest.setUserId(userId);
+        notificationRequest.setSubject("New Smart Wallet Transaction");
+        notificationRequest.setBody("DEPOSIT transaction was successful processed for you with amount 20.00 EUR!");
+    }
+
+    @Benchmark
+    public Notification sendNotification() {
+        return notificationService.sendNotification(notificationRequest);
+    }
+}
@@ -0,0 +1,54 @@
+package benchmark.notification;
+
+import app.Application;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.mail.MailSender;
+import org.springframework.mail.SimpleMailMessage;
+
+// Цялото приложение върху H2 (профил benchmark) - един context за fork
+@State(Scope.Benchmark)
+public class NotificationSvcContext {
+
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void start() {
+
+        context = new SpringApplicationBuilder(Application.class, StubConfiguration.class)
+                .profiles("benchmark")
+                .run();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    @Configuration
+    static class StubConfiguration {
+
+        // Без SMTP - измерваме само notification-svc
+        @Bean
+        @Primary
+        MailSender mailSenderStub() {
+            return new MailSender() {
+                @Override
+                public void send(SimpleMailMessage simpleMessage) {
+                }
+
+                @Override
+                public void send(SimpleMailMessage... simpleMessages) {
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package benchmark.products;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.service.ProductService;
+import com.web.ProductSnapshotCache;
+import com.web.dto.ProductResponse;
+import com.web.mapper.DtoMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// GET /api/v1/products без параметри: готовия JSON от ProductSnapshotCache срещу стария път
+// (getAllProducts -> DtoMapper -> Jackson при всяка заявка). afterEveryWrite е най-лошият случай за кеша -
+// всяко четене идва след промяна и snapshot-ът се пресъздава.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductListBenchmark {
+
+    @Param({"1000", "10000"})
+    public int products;
+
+    private ProductService productService;
+    private ProductSnapshotCache productSnapshotCache;
+    private ObjectMapper objectMapper;
+    private List<UUID> ids;
+
+    @Setup
+    public void setUp() {
+
+        productService = new ProductService();
+        ids = ProductStores.createProducts(productService, products);
+        objectMapper = new ObjectMapper();
+        productSnapshotCache = new ProductSnapshotCache(productService, objectMapper);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public byte[] snapshotCache() {
+        return productSnapshotCache.getSnapshot().json();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public byte[] mappingPath() throws JsonProcessingException {
+
+        List<ProductResponse> list = productService.getAllProducts()
+                .stream()
+                .map(DtoMapper::toProductResponse)
+                .toList();
+
+        return objectMapper.writeValueAsBytes(list);
+    }
+
+    @Benchmark
+    public byte[] snapshotCacheAfterEveryWrite() {
+
+        productService.adjustQuantity(ids.get(ThreadLocalRandom.current().nextInt(products)), 1);
+        return productSnapshotCache.getSnapshot().json();
+    }
+}
@@ -0,0 +1,72 @@
+package benchmark.products;
+
+import com.persistence.MappedProductLog;
+import com.service.ProductService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Време за стартиране на ProductService от диска: snapshot с 10M продукта (-Dbenchmark.products)
+// + опашка на лога с промени по 10% от тях, направени след snapshot-а.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsPrepend = "-Xmx12g")
+public class ProductLogRecoveryBenchmark {
+
+    private static final int SEGMENT_SIZE = 64 * 1024 * 1024;
+    private static final long FLUSH_INTERVAL_MS = 2;
+
+    private Path directory;
+    private MappedProductLog recoveredLog;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+
+        directory = Files.createTempDirectory(Path.of("target"), "product-log-recovery");
+
+        // ASYNC - подготовката не чака fsync за всеки chunk; destroy() force-ва остатъка
+        MappedProductLog productLog = newLog(MappedProductLog.SyncMode.ASYNC);
+        ProductService productService = ProductStores.withJournal(productLog);
+        List<UUID> ids = ProductStores.createProducts(productService, ProductStores.configuredProducts());
+        productLog.writeSnapshot(productService::getAllProducts);
+
+        for (int i = 0; i < ids.size(); i += 10) {
+            productService.adjustQuantity(ids.get(i), 1);
+        }
+        productLog.destroy();
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeRecoveredLog() {
+
+        if (recoveredLog != null) {
+            recoveredLog.destroy();
+            recoveredLog = null;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        ProductStores.deleteRecursively(directory);
+    }
+
+    // Конструкторът на ProductService извиква journal.recover() - snapshot + replay на опашката
+    @Benchmark
+    public ProductService recover() throws IOException {
+
+        recoveredLog = newLog(MappedProductLog.SyncMode.GROUP);
+        return ProductStores.withJournal(recoveredLog);
+    }
+
+    private MappedProductLog newLog(MappedProductLog.SyncMode syncMode) throws IOException {
+        return new MappedProductLog(directory.toString(), SEGMENT_SIZE, FLUSH_INTERVAL_MS, syncMode);
+    }
+}
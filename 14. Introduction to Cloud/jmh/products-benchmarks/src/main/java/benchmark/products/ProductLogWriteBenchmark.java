@@ -0,0 +1,60 @@
+package benchmark.products;
+
+import com.model.Product;
+import com.persistence.MappedProductLog;
+import com.service.ProductService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Запис през MappedProductLog: GROUP (връща след общия fsync) срещу ASYNC (връща веднага).
+// 8 нишки променят количества - при GROUP един force() покрива записите на всички чакащи нишки.
+// Логът е в target/ на модула - на tmpfs fsync-ът е безплатен, резултатът има смисъл само върху реален диск.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class ProductLogWriteBenchmark {
+
+    private static final int PRODUCTS = 10_000;
+    private static final int SEGMENT_SIZE = 64 * 1024 * 1024;
+    private static final long FLUSH_INTERVAL_MS = 2;
+
+    @Param({"GROUP", "ASYNC"})
+    public MappedProductLog.SyncMode syncMode;
+
+    private Path directory;
+    private MappedProductLog productLog;
+    private ProductService productService;
+    private List<UUID> ids;
+
+    @Setup
+    public void setUp() throws IOException {
+
+        directory = Files.createTempDirectory(Path.of("target"), "product-log-write");
+        productLog = new MappedProductLog(directory.toString(), SEGMENT_SIZE, FLUSH_INTERVAL_MS, syncMode);
+        productService = ProductStores.withJournal(productLog);
+        ids = ProductStores.createProducts(productService, PRODUCTS);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+
+        productLog.destroy();
+        ProductStores.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public Product adjustQuantity() {
+        return productService.adjustQuantity(ids.get(ThreadLocalRandom.current().nextInt(PRODUCTS)), 1);
+    }
+}
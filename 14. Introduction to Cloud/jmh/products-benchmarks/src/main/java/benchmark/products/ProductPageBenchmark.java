@@ -0,0 +1,66 @@
+package benchmark.products;
+
+import com.model.Product;
+import com.model.ProductPage;
+import com.model.ProductSort;
+import com.service.ProductService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Страниците и търсенето в ProductService при 10M продукта (-Dbenchmark.products).
+// Индексите са skip list-ове: началото на страница е O(log n), дълбока страница плаща за прескочените записи.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsPrepend = "-Xmx12g")
+public class ProductPageBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private int products;
+    private ProductService productService;
+    private List<UUID> ids;
+
+    @Setup
+    public void setUp() {
+
+        products = ProductStores.configuredProducts();
+        productService = new ProductService();
+        ids = ProductStores.createProducts(productService, products);
+    }
+
+    @Benchmark
+    public ProductPage firstPageByName() {
+        return productService.getPage(ProductSort.NAME, null, 0, PAGE_SIZE);
+    }
+
+    // Количествата са в [0, 10000) - отговарят около 10% от продуктите, началото е tailMap
+    @Benchmark
+    public ProductPage firstPageByQuantityWithMinQuantity() {
+        return productService.getPage(ProductSort.QUANTITY, 9000, 0, PAGE_SIZE);
+    }
+
+    // page * size = 10 000 прескочени записа
+    @Benchmark
+    public ProductPage deepPageByQuantity() {
+        return productService.getPage(ProductSort.QUANTITY, null, 500, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Product> findByNamePrefix() {
+
+        String name = ProductStores.name(ThreadLocalRandom.current().nextInt(products));
+        return productService.findByNamePrefix(name.substring(0, name.length() - 1));
+    }
+
+    @Benchmark
+    public Product getById() {
+        return productService.getById(ids.get(ThreadLocalRandom.current().nextInt(products))).orElseThrow();
+    }
+}
@@ -0,0 +1,81 @@
+package benchmark.products;
+
+import com.model.Product;
+import com.service.ProductService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Конкурентният store на ProductService (ConcurrentHashMap + индекси) при смесено натоварване.
+// readMostly: 7 нишки четат (по id и по префикс), 1 променя количества; writeHeavy: 4 срещу 4.
+// Без журнал - измерва се само in-memory store-а.
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductStoreBenchmark {
+
+    private static final int PRODUCTS = 100_000;
+
+    private ProductService productService;
+    private List<UUID> ids;
+
+    @Setup
+    public void setUp() {
+
+        productService = new ProductService();
+        ids = ProductStores.createProducts(productService, PRODUCTS);
+    }
+
+    @Benchmark
+    @Group("readMostly")
+    @GroupThreads(5)
+    public Optional<Product> readMostlyGetById() {
+        return productService.getById(randomId());
+    }
+
+    @Benchmark
+    @Group("readMostly")
+    @GroupThreads(2)
+    public List<Product> readMostlyFindByNamePrefix() {
+        return productService.findByNamePrefix(randomPrefix());
+    }
+
+    @Benchmark
+    @Group("readMostly")
+    @GroupThreads(1)
+    public Product readMostlyAdjustQuantity() {
+        return productService.adjustQuantity(randomId(), 1);
+    }
+
+    @Benchmark
+    @Group("writeHeavy")
+    @GroupThreads(4)
+    public Optional<Product> writeHeavyGetById() {
+        return productService.getById(randomId());
+    }
+
+    @Benchmark
+    @Group("writeHeavy")
+    @GroupThreads(4)
+    public Product writeHeavyAdjustQuantity() {
+        return productService.adjustQuantity(randomId(), 1);
+    }
+
+    private UUID randomId() {
+        return ids.get(ThreadLocalRandom.current().nextInt(PRODUCTS));
+    }
+
+    // Префикс с 7 цифри - 10 продукта
+    private static String randomPrefix() {
+
+        String name = ProductStores.name(ThreadLocalRandom.current().nextInt(PRODUCTS));
+        return name.substring(0, name.length() - 1);
+    }
+}
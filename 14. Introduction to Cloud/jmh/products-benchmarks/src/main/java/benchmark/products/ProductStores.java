@@ -0,0 +1,75 @@
+package benchmark.products;
+
+import com.model.Product;
+import com.persistence.ProductJournal;
+import com.service.ProductService;
+import com.web.dto.NewProductRequest;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+// Общи стъпки за benchmark-ите на products-rest-service-demo: ProductService с/без журнал и зареждане на продукти.
+final class ProductStores {
+
+    // Bulk import на chunk-ове - една нова версия и един запис в журнала на chunk
+    private static final int CHUNK_SIZE = 1000;
+
+    private ProductStores() {
+    }
+
+    // Брой продукти за големите benchmark-и - -Dbenchmark.products (виж jmh/pom.xml)
+    static int configuredProducts() {
+        return Integer.getInteger("benchmark.products", 10_000_000);
+    }
+
+    // Публичният конструктор с ObjectProvider - същия път като в Spring context-а
+    static ProductService withJournal(ProductJournal journal) {
+        return new ProductService(new StaticListableBeanFactory(Map.of("productJournal", journal)).getBeanProvider(ProductJournal.class));
+    }
+
+    // Имената са "product-00000042" - findByNamePrefix("product-0000004") връща 10 продукта.
+    // Количествата са случайни в [0, 10000), за да има смисъл minQuantity.
+    static List<UUID> createProducts(ProductService productService, int count) {
+
+        List<UUID> ids = new ArrayList<>(count);
+        List<NewProductRequest> chunk = new ArrayList<>(CHUNK_SIZE);
+
+        for (int i = 0; i < count; i++) {
+            NewProductRequest request = new NewProductRequest();
+            request.setName(name(i));
+            request.setQuantity(ThreadLocalRandom.current().nextInt(10_000));
+            chunk.add(request);
+
+            if (chunk.size() == CHUNK_SIZE || i == count - 1) {
+                for (Product product : productService.createNewProducts(chunk)) {
+                    ids.add(product.getId());
+                }
+                chunk.clear();
+            }
+        }
+
+        return ids;
+    }
+
+    static String name(int index) {
+        return "product-%08d".formatted(index);
+    }
+
+    static void deleteRecursively(Path directory) throws IOException {
+
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
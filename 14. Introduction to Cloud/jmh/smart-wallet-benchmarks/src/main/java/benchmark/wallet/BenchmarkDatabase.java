@@ -0,0 +1,74 @@
+package benchmark.wallet;
+
+import java.sql.*;
+
+// JDBC база за benchmark-ите, които сравняват индекси (UUID първичен ключ, wallet id колоните).
+// По подразбиране H2 файл в target/, с -Dbenchmark.jdbc-url=jdbc:mysql://...?rewriteBatchedStatements=true - MySQL/InnoDB.
+// Размерът на индекса има смисъл най-вече за InnoDB - там първичният ключ е clustered и page split-овете се виждат.
+final class BenchmarkDatabase {
+
+    private BenchmarkDatabase() {
+    }
+
+    static Connection connect(String h2Name) throws SQLException {
+
+        String url = System.getProperty("benchmark.jdbc-url", "");
+        if (url.isBlank()) {
+            return DriverManager.getConnection("jdbc:h2:file:./target/%s;MODE=MYSQL".formatted(h2Name), "sa", "");
+        }
+
+        return DriverManager.getConnection(url, System.getProperty("benchmark.jdbc-username", ""), System.getProperty("benchmark.jdbc-password", ""));
+    }
+
+    // MySQL: mysql.innodb_index_stats (stat_name = 'size', в страници) за конкретния индекс; PRIMARY = clustered индекса.
+    // H2 не дава размер на отделен индекс - DISK_SPACE_USED на цялата таблица, затова таблиците в benchmark-ите
+    // имат само индекса, който се сравнява.
+    static long sizeInBytes(Connection connection, String table, String index) throws SQLException {
+
+        if (isMySql(connection)) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ANALYZE TABLE " + table);
+            }
+            try (PreparedStatement query = connection.prepareStatement("""
+                    SELECT stat_value * @@innodb_page_size FROM mysql.innodb_index_stats
+                    WHERE database_name = DATABASE() AND table_name = ? AND index_name = ? AND stat_name = 'size'
+                    """)) {
+                query.setString(1, table);
+                query.setString(2, index);
+                return singleLong(query);
+            }
+        }
+
+        try (PreparedStatement query = connection.prepareStatement("SELECT DISK_SPACE_USED(?)")) {
+            query.setString(1, table.toUpperCase());
+            return singleLong(query);
+        }
+    }
+
+    static long rowCount(Connection connection, String table) throws SQLException {
+
+        try (PreparedStatement query = connection.prepareStatement("SELECT COUNT(*) FROM " + table)) {
+            return singleLong(query);
+        }
+    }
+
+    // Печата се от fork-а след trial-а - JMH го показва заедно с резултата
+    static void report(String benchmark, Connection connection, String table, String index) throws SQLException {
+
+        String measured = isMySql(connection) ? "index " + index : "table";
+        System.out.printf("%n[index-size] %s: %,d rows, %s %.2f MB%n",
+                benchmark, rowCount(connection, table), measured, sizeInBytes(connection, table, index) / (1024.0 * 1024.0));
+    }
+
+    static boolean isMySql(Connection connection) throws SQLException {
+        return "MySQL".equals(connection.getMetaData().getDatabaseProductName());
+    }
+
+    private static long singleLong(PreparedStatement query) throws SQLException {
+
+        try (ResultSet resultSet = query.executeQuery()) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package benchmark.wallet;
+
+import app.user.model.User;
+import app.web.dto.UserEditRequest;
+import app.web.mapper.DtoMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoMapperBenchmark {
+
+    private User user;
+
+    @Setup
+    public void setUp() {
+
+        user = User.builder()
+                .id(UUID.randomUUID())
+                .username("benchmark")
+                .firstName("Dimitar")
+                .lastName("Peev")
+                .email("peev@abv.bg")
+                .profilePicture("www.image.com")
+                .build();
+    }
+
+    @Benchmark
+    public UserEditRequest mapUserToUserEditRequest() {
+        return DtoMapper.mapUserToUserEditRequest(user);
+    }
+}
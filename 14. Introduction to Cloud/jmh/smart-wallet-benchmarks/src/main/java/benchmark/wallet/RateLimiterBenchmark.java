@@ -0,0 +1,66 @@
+package benchmark.wallet;
+
+import app.ratelimit.RateLimitProperties;
+import app.ratelimit.RateLimiter;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// Overhead на RateLimitInterceptor за една заявка (целта е под 1 µs): shard lookup + CAS в TokenBucket.
+// Лимитът е достатъчно голям, за да минава всяка заявка - измерваме пътя на пропуснатата заявка.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    // Степен на 2 - индексът е cursor & (KEYS - 1)
+    private static final int KEYS = 1 << 16;
+
+    private RateLimiter rateLimiter;
+    private RateLimitProperties.Limit limit;
+    private String[] keys;
+
+    @Setup
+    public void setUp() {
+
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setMaxBuckets(KEYS * 2);
+        rateLimiter = new RateLimiter(properties);
+
+        // 1 token на наносекунда
+        limit = new RateLimitProperties.Limit();
+        limit.setCapacity(1_000_000);
+        limit.setRefillPeriod(Duration.ofMillis(1));
+
+        keys = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = "user-" + i;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Benchmark
+    public long sameKey() {
+        return rateLimiter.tryAcquire("user-1", limit);
+    }
+
+    // Всички нишки в един bucket - най-лошия случай за CAS-а
+    @Benchmark
+    @Threads(8)
+    public long sameKeyContended() {
+        return rateLimiter.tryAcquire("user-1", limit);
+    }
+
+    @Benchmark
+    public long distinctKeys(Cursor cursor) {
+        return rateLimiter.tryAcquire(keys[cursor.next++ & (KEYS - 1)], limit);
+    }
+}
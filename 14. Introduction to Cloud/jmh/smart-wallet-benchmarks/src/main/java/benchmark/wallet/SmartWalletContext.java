@@ -0,0 +1,118 @@
+package benchmark.wallet;
+
+import app.Application;
+import app.notification.client.NotificationClient;
+import app.notification.client.dto.Notification;
+import app.notification.client.dto.NotificationPreference;
+import app.notification.client.dto.NotificationRequest;
+import app.notification.client.dto.UpsertNotificationPreference;
+import app.transaction.service.TransactionWalletIdBackfill;
+import app.user.model.Country;
+import app.user.model.User;
+import app.user.service.UserService;
+import app.web.dto.RegisterRequest;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Цялото приложение върху H2 (профил benchmark) - един context за fork
+@State(Scope.Benchmark)
+public class SmartWalletContext {
+
+    private final AtomicInteger users = new AtomicInteger();
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void start() throws InterruptedException {
+
+        context = new SpringApplicationBuilder(Application.class, StubConfiguration.class)
+                .profiles("benchmark")
+                .run();
+
+        // Иначе getLastFourTransactionsByWallet минава през стария път (по текстовите sender/receiver)
+        TransactionWalletIdBackfill backfill = getBean(TransactionWalletIdBackfill.class);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!backfill.isCompleted() && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    // Потребител с портфейл и абонамент - през регистрацията, както в IdempotencyITest
+    public User registerUser(String prefix) {
+
+        String username = prefix + users.incrementAndGet();
+        return getBean(UserService.class).register(new RegisterRequest(username, "123123", Country.BULGARIA));
+    }
+
+    @Configuration
+    static class StubConfiguration {
+
+        // Без HTTP към notification-svc - измерваме само smart-wallet
+        @Bean
+        @Primary
+        NotificationClient notificationClientStub() {
+            return new NotificationClientStub();
+        }
+    }
+
+    static class NotificationClientStub implements NotificationClient {
+
+        @Override
+        public ResponseEntity<String> getHelloMessage(String name) {
+            return ResponseEntity.ok(name);
+        }
+
+        @Override
+        public ResponseEntity<Void> upsertNotificationPreference(UpsertNotificationPreference notificationPreference) {
+            return ResponseEntity.ok().build();
+        }
+
+        @Override
+        public ResponseEntity<NotificationPreference> getUserPreference(UUID userId) {
+            return ResponseEntity.ok(new NotificationPreference());
+        }
+
+        @Override
+        public ResponseEntity<List<Notification>> getNotificationHistory(UUID userId) {
+            return ResponseEntity.ok(List.of());
+        }
+
+        @Override
+        public ResponseEntity<Void> sendNotification(NotificationRequest notificationRequest) {
+            return ResponseEntity.ok().build();
+        }
+
+        @Override
+        public ResponseEntity<Void> updateNotificationPreference(UUID userId, boolean enabled) {
+            return ResponseEntity.ok().build();
+        }
+
+        @Override
+        public ResponseEntity<Void> clearHistory(UUID userId) {
+            return ResponseEntity.ok().build();
+        }
+
+        @Override
+        public ResponseEntity<Void> retryFailedNotifications(UUID userId) {
+            return ResponseEntity.ok().build();
+        }
+    }
+}
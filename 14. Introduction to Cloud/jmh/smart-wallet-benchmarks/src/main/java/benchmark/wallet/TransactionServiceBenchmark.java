@@ -0,0 +1,103 @@
+package benchmark.wallet;
+
+import app.transaction.model.Transaction;
+import app.transaction.model.TransactionStatus;
+import app.transaction.model.TransactionType;
+import app.transaction.repository.TransactionRepository;
+import app.transaction.service.TransactionService;
+import app.user.model.User;
+import app.wallet.model.Wallet;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Четене по BINARY(16) wallet id (findLatestByWalletId) - цената не трябва да расте с броя транзакции в таблицата.
+// varcharBaseline е старият път (преди backfill-а) - по текстовите sender/receiver, за сравнение на същите данни.
+// Размерът на индексите VARCHAR срещу BINARY(16) - WalletIdColumnBenchmark.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionServiceBenchmark {
+
+    // Чужди портфейли със същия брой транзакции - индексът трябва да ги прескочи
+    private static final int OTHER_WALLETS = 100;
+    private static final int INSERT_CHUNK = 1000;
+
+    @Param({"10", "1000"})
+    public int transactionsPerWallet;
+
+    private TransactionService transactionService;
+    private TransactionRepository transactionRepository;
+    private Wallet wallet;
+
+    @Setup(Level.Trial)
+    public void setUp(SmartWalletContext context) {
+
+        transactionService = context.getBean(TransactionService.class);
+        transactionRepository = context.getBean(TransactionRepository.class);
+
+        User user = context.registerUser("history");
+        wallet = user.getWallets().get(0);
+        insertDeposits(user, wallet);
+
+        for (int i = 0; i < OTHER_WALLETS; i++) {
+            User other = context.registerUser("other");
+            insertDeposits(other, other.getWallets().get(0));
+        }
+    }
+
+    @Benchmark
+    public List<Transaction> getLastFourTransactionsByWallet() {
+        return transactionService.getLastFourTransactionsByWallet(wallet);
+    }
+
+    // Същото като TransactionService преди backfill-а да е приключил
+    @Benchmark
+    public List<Transaction> varcharBaseline() {
+
+        String walletId = wallet.getId().toString();
+        return transactionRepository.findAllBySenderOrReceiverOrderByCreatedOnDesc(walletId, walletId)
+                .stream()
+                .filter(t -> t.getOwner().getId().equals(wallet.getOwner().getId()))
+                .filter(t -> t.getStatus() == TransactionStatus.SUCCEEDED)
+                .limit(4)
+                .collect(Collectors.toList());
+    }
+
+    private void insertDeposits(User owner, Wallet target) {
+
+        List<Transaction> chunk = new ArrayList<>(INSERT_CHUNK);
+        for (int i = 0; i < transactionsPerWallet; i++) {
+            chunk.add(Transaction.builder()
+                    .owner(owner)
+                    .sender("Smart Wallet Ltd")
+                    .receiver(target.getId().toString())
+                    .receiverWalletId(target.getId())
+                    .amount(BigDecimal.ONE)
+                    .balanceLeft(BigDecimal.ONE)
+                    .currency(target.getCurrency())
+                    .type(TransactionType.DEPOSIT)
+                    .status(TransactionStatus.SUCCEEDED)
+                    .description("Benchmark deposit")
+                    .createdOn(LocalDateTime.now())
+                    .build());
+
+            if (chunk.size() == INSERT_CHUNK) {
+                transactionService.createNewTransactions(chunk);
+                chunk = new ArrayList<>(INSERT_CHUNK);
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            transactionService.createNewTransactions(chunk);
+        }
+    }
+}
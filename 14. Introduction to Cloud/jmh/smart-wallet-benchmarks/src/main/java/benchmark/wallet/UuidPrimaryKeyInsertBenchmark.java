@@ -0,0 +1,81 @@
+package benchmark.wallet;
+
+import app.persistence.UuidV7Generator;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.sql.*;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// INSERT с BINARY(16) първичен ключ: случаен UUIDv4 срещу времево нарастващ UUIDv7 (UuidV7Generator).
+// Една итерация = 100 batch-а по 1000 реда; общо 1.3M реда за параметър, индексът расте през целия trial.
+// След trial-а се отпечатва размерът на първичния ключ ([index-size]) - при v4 page split-овете оставят полупразни страници.
+// Базата е H2 файл в target/ или MySQL (-Dbenchmark.jdbc-url) - виж BenchmarkDatabase.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, batchSize = 100)
+@Measurement(iterations = 10, batchSize = 100)
+@Fork(1)
+public class UuidPrimaryKeyInsertBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    public enum IdType {
+        V4, V7
+    }
+
+    @Param({"V4", "V7"})
+    public IdType idType;
+
+    private Connection connection;
+    private PreparedStatement insert;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+
+        connection = BenchmarkDatabase.connect("uuid-primary-key");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + table());
+            statement.execute("CREATE TABLE " + table() + " (id BINARY(16) PRIMARY KEY, amount DECIMAL(19, 2) NOT NULL)");
+        }
+        connection.setAutoCommit(false);
+        insert = connection.prepareStatement("INSERT INTO " + table() + " (id, amount) VALUES (?, ?)");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+
+        BenchmarkDatabase.report("UuidPrimaryKeyInsertBenchmark " + idType, connection, table(), "PRIMARY");
+        connection.close();
+    }
+
+    @Benchmark
+    public int[] insertBatch() throws SQLException {
+
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            insert.setBytes(1, toBytes(idType == IdType.V7 ? UuidV7Generator.randomUuid() : UUID.randomUUID()));
+            insert.setBigDecimal(2, BigDecimal.ONE);
+            insert.addBatch();
+        }
+
+        int[] inserted = insert.executeBatch();
+        connection.commit();
+        return inserted;
+    }
+
+    // Отделна таблица за всеки параметър - размерите се сравняват след края на benchmark-а
+    private String table() {
+        return "uuid_pk_" + idType.name().toLowerCase();
+    }
+
+    private static byte[] toBytes(UUID id) {
+
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+}
@@ -0,0 +1,47 @@
+package benchmark.wallet;
+
+import app.user.model.User;
+import app.user.repository.UserRepository;
+import app.user.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Цената на LoggingAspect около @VeryImportant: UserService.getById (с advice) срещу същата заявка
+// в същата read-only транзакция без advice. Разликата между двата резултата е overhead-а на аспекта.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VeryImportantAdviceBenchmark {
+
+    private UserService userService;
+    private UserRepository userRepository;
+    private TransactionTemplate readOnlyTransaction;
+    private UUID userId;
+
+    @Setup(Level.Trial)
+    public void setUp(SmartWalletContext context) {
+
+        userService = context.getBean(UserService.class);
+        userRepository = context.getBean(UserRepository.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+        userId = context.registerUser("advised").getId();
+    }
+
+    @Benchmark
+    public User withAdvice() {
+        return userService.getById(userId);
+    }
+
+    @Benchmark
+    public User withoutAdvice() {
+        return readOnlyTransaction.execute(status -> userRepository.findById(userId).orElseThrow());
+    }
+}
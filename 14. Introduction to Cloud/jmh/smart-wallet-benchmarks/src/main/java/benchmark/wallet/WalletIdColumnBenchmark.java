@@ -0,0 +1,135 @@
+package benchmark.wallet;
+
+import app.persistence.UuidV7Generator;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Последните 4 транзакции на портфейл: стария VARCHAR sender (текстов UUID) срещу BINARY(16) sender_wallet_id.
+// И двете колони са с индекс (колона, created_on) - сравнява се цената на lookup-а и размерът на индекса ([index-size]).
+// Базата е H2 файл в target/ или MySQL (-Dbenchmark.jdbc-url) - виж BenchmarkDatabase.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WalletIdColumnBenchmark {
+
+    private static final int WALLETS = 2000;
+    private static final int TRANSACTIONS_PER_WALLET = 100;
+    private static final int BATCH_SIZE = 1000;
+
+    public enum Column {
+        VARCHAR, BINARY
+    }
+
+    @Param({"VARCHAR", "BINARY"})
+    public Column column;
+
+    private final List<UUID> walletIds = new ArrayList<>(WALLETS);
+    private Connection connection;
+    private PreparedStatement lookup;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+
+        connection = BenchmarkDatabase.connect("wallet-id-column");
+        String type = column == Column.VARCHAR ? "VARCHAR(255)" : "BINARY(16)";
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + table());
+            statement.execute("CREATE TABLE %s (id BINARY(16) PRIMARY KEY, sender %s NOT NULL, amount DECIMAL(19, 2) NOT NULL, created_on DATETIME(6) NOT NULL)"
+                    .formatted(table(), type));
+            statement.execute("CREATE INDEX %s ON %s (sender, created_on)".formatted(index(), table()));
+        }
+        connection.setAutoCommit(false);
+
+        for (int i = 0; i < WALLETS; i++) {
+            walletIds.add(UUID.randomUUID());
+        }
+        insertTransactions();
+
+        lookup = connection.prepareStatement("SELECT id, amount FROM %s WHERE sender = ? ORDER BY created_on DESC LIMIT 4".formatted(table()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+
+        BenchmarkDatabase.report("WalletIdColumnBenchmark " + column, connection, table(), index());
+        connection.close();
+    }
+
+    @Benchmark
+    public int lastFourTransactions() throws SQLException {
+
+        setSender(lookup, 1, walletIds.get(ThreadLocalRandom.current().nextInt(WALLETS)));
+
+        int rows = 0;
+        try (ResultSet resultSet = lookup.executeQuery()) {
+            while (resultSet.next()) {
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    // Транзакциите на различните портфейли са разбъркани във времето, както в реалната таблица
+    private void insertTransactions() throws SQLException {
+
+        LocalDateTime createdOn = LocalDateTime.now().minusDays(30);
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO %s (id, sender, amount, created_on) VALUES (?, ?, ?, ?)".formatted(table()))) {
+            int batched = 0;
+            for (int i = 0; i < TRANSACTIONS_PER_WALLET; i++) {
+                for (UUID walletId : walletIds) {
+                    insert.setBytes(1, toBytes(UuidV7Generator.randomUuid()));
+                    setSender(insert, 2, walletId);
+                    insert.setBigDecimal(3, BigDecimal.ONE);
+                    createdOn = createdOn.plusNanos(1000);
+                    insert.setTimestamp(4, Timestamp.valueOf(createdOn));
+                    insert.addBatch();
+
+                    if (++batched == BATCH_SIZE) {
+                        insert.executeBatch();
+                        connection.commit();
+                        batched = 0;
+                    }
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+    }
+
+    private void setSender(PreparedStatement statement, int parameter, UUID walletId) throws SQLException {
+
+        if (column == Column.VARCHAR) {
+            statement.setString(parameter, walletId.toString());
+        } else {
+            statement.setBytes(parameter, toBytes(walletId));
+        }
+    }
+
+    private String table() {
+        return "wallet_id_" + column.name().toLowerCase();
+    }
+
+    private String index() {
+        return "idx_" + table() + "_sender";
+    }
+
+    private static byte[] toBytes(UUID id) {
+
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+}
@@ -0,0 +1,56 @@
+package benchmark.wallet;
+
+import app.transaction.model.Transaction;
+import app.user.model.User;
+import app.wallet.service.WalletService;
+import app.web.dto.TransferRequest;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Пълният път през Spring proxy-тата: транзакция, UPDATE на портфейла, INSERT на транзакцията, TransactionCreatedEvent
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WalletServiceBenchmark {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("0.01");
+
+    private WalletService walletService;
+    private User sender;
+    private UUID senderWalletId;
+    private TransferRequest transferRequest;
+
+    @Setup(Level.Trial)
+    public void setUp(SmartWalletContext context) {
+
+        walletService = context.getBean(WalletService.class);
+        sender = context.registerUser("sender");
+        User receiver = context.registerUser("receiver");
+        senderWalletId = sender.getWallets().get(0).getId();
+
+        // Достатъчно за всички извиквания - измерваме успешното плащане, не "Insufficient funds"
+        walletService.topUp(senderWalletId, new BigDecimal("1000000000"));
+
+        transferRequest = TransferRequest.builder()
+                .fromWalletId(senderWalletId)
+                .toUsername(receiver.getUsername())
+                .amount(AMOUNT)
+                .build();
+    }
+
+    @Benchmark
+    public Transaction charge() {
+        return walletService.charge(sender, senderWalletId, AMOUNT, "Benchmark charge");
+    }
+
+    @Benchmark
+    public Transaction transferFunds() {
+        return walletService.transferFunds(sender, transferRequest);
+    }
+}
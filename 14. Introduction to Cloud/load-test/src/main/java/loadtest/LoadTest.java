@@ -0,0 +1,53 @@
+package loadtest;
+
+import loadtest.client.LoadRunner;
+import loadtest.generator.DataGenerator;
+import loadtest.standin.StandIns;
+import loadtest.startup.StartupBenchmark;
+
+import java.util.Arrays;
+
+public class LoadTest {
+
+    private static final String USAGE = """
+            Usage: java -jar load-test.jar <command> [--name=value ...]
+
+              generate   Bulk insert of users, subscriptions, wallets and transactions through the application's entities
+                         --users=1000000 --transactions-per-wallet=10 --chunk-size=1000 --output=target/load-test-users.csv
+                         --spring.datasource.url=jdbc:mysql://localhost:3306/smart_wallet_application?rewriteBatchedStatements=true
+                         --spring.datasource.username=... --spring.datasource.password=...
+
+              stand-ins  Local notification-svc (HTTP) and SMTP sink
+                         --notification-port=8081 --smtp-port=2525
+
+              run        Scenario mix (login, dashboard, top-up, transfer, notifications) against a running smart-wallet-application
+                         --base-url=http://localhost:8080 --users-file=target/load-test-users.csv --users=5000
+                         --duration=PT2M --ramp-up=PT30S --think-time=PT0S --server-pid=<pid>
+
+              startup    Cold start of Docker images: time to first HTTP response and RSS, one fresh container per run
+                         --images=smart-wallet-application:jdk,smart-wallet-application:startup --runs=5
+                         --port=8080 --path=/login --timeout=PT2M
+                         --docker-args="--add-host=host.docker.internal:host-gateway -e DB_USERNAME=... -e DB_PASSWORD=..."
+            """;
+
+    public static void main(String[] args) throws Exception {
+
+        if (args.length == 0) {
+            System.out.print(USAGE);
+            System.exit(2);
+        }
+
+        Options options = Options.parse(Arrays.copyOfRange(args, 1, args.length));
+
+        switch (args[0]) {
+            case "generate" -> DataGenerator.run(options);
+            case "stand-ins" -> StandIns.run(options);
+            case "run" -> LoadRunner.run(options);
+            case "startup" -> StartupBenchmark.run(options);
+            default -> {
+                System.out.print(USAGE);
+                System.exit(2);
+            }
+        }
+    }
+}
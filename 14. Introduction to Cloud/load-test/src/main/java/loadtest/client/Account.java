@@ -0,0 +1,13 @@
+package loadtest.client;
+
+import java.util.UUID;
+
+// Ред от CSV-то на генератора
+public record Account(String username, UUID walletId) {
+
+    static Account parse(String line) {
+
+        int separator = line.indexOf(',');
+        return new Account(line.substring(0, separator), UUID.fromString(line.substring(separator + 1)));
+    }
+}
@@ -0,0 +1,82 @@
+package loadtest.client;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Латентност на сценарий (всички HTTP заявки в него) в микросекунди + брой по изход
+public class LatencyReport {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Map<Scenario, ScenarioStats> stats = new EnumMap<>(Scenario.class);
+
+    public LatencyReport() {
+        for (Scenario scenario : Scenario.values()) {
+            stats.put(scenario, new ScenarioStats());
+        }
+    }
+
+    void record(Scenario scenario, long elapsedNanos, Outcome outcome) {
+
+        ScenarioStats scenarioStats = stats.get(scenario);
+        scenarioStats.latency.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, TimeUnit.NANOSECONDS.toMicros(elapsedNanos)));
+        scenarioStats.outcomes.get(outcome).increment();
+    }
+
+    public void print(PrintStream out, Duration elapsed) {
+
+        double seconds = elapsed.toMillis() / 1000.0;
+        String header = "%-14s %10s %10s %8s %8s %8s %8s %8s %12s %9s %9s %9s%n";
+        String row = "%-14s %10d %10d %8d %8d %8d %8d %8d %12.1f %9.1f %9.1f %9.1f%n";
+
+        out.printf(header, "scenario", "count", "ok", "429", "4xx", "5xx", "login", "io", "per second", "p50 ms", "p99 ms", "max ms");
+
+        Histogram total = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        long[] totals = new long[Outcome.values().length];
+
+        for (Map.Entry<Scenario, ScenarioStats> entry : stats.entrySet()) {
+
+            ScenarioStats scenarioStats = entry.getValue();
+            Histogram latency = scenarioStats.latency.copy();
+            if (latency.getTotalCount() == 0) {
+                continue;
+            }
+            total.add(latency);
+
+            long[] outcomes = new long[Outcome.values().length];
+            for (Outcome outcome : Outcome.values()) {
+                outcomes[outcome.ordinal()] = scenarioStats.outcomes.get(outcome).sum();
+                totals[outcome.ordinal()] += outcomes[outcome.ordinal()];
+            }
+
+            out.printf(row, entry.getKey(), latency.getTotalCount(), outcomes[0], outcomes[1], outcomes[2], outcomes[3], outcomes[4], outcomes[5],
+                    latency.getTotalCount() / seconds, millis(latency, 50), millis(latency, 99), latency.getMaxValue() / 1000.0);
+        }
+
+        out.printf(row, "TOTAL", total.getTotalCount(), totals[0], totals[1], totals[2], totals[3], totals[4], totals[5],
+                total.getTotalCount() / seconds, millis(total, 50), millis(total, 99), total.getMaxValue() / 1000.0);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private static class ScenarioStats {
+
+        private final ConcurrentHistogram latency = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        private final Map<Outcome, LongAdder> outcomes = new EnumMap<>(Outcome.class);
+
+        ScenarioStats() {
+            for (Outcome outcome : Outcome.values()) {
+                outcomes.put(outcome, new LongAdder());
+            }
+        }
+    }
+}
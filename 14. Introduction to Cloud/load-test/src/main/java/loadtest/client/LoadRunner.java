@@ -0,0 +1,92 @@
+package loadtest.client;
+
+import loadtest.Options;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Затворен модел: --users едновременни сесии, всяка изпълнява следващия сценарий веднага щом свърши предишният
+// (+ --think-time). Сесиите тръгват равномерно през --ramp-up, всяка на своя virtual thread.
+public class LoadRunner {
+
+    public static void run(Options options) throws IOException, InterruptedException {
+
+        String baseUrl = options.getString("base-url", "http://localhost:8080");
+        Path usersFile = options.getPath("users-file", "target/load-test-users.csv");
+        int users = options.getInt("users", 5000);
+        Duration duration = options.getDuration("duration", Duration.ofMinutes(2));
+        Duration rampUp = options.getDuration("ramp-up", Duration.ofSeconds(30));
+        Duration thinkTime = options.getDuration("think-time", Duration.ZERO);
+        int serverPid = options.getInt("server-pid", 0);
+
+        // Получатели на transfer-ите - част от генерираните потребители, не само активните сесии
+        List<Account> accounts = readAccounts(usersFile, Math.max(users * 10, 10_000));
+        if (accounts.size() < 2) {
+            throw new IllegalStateException("Need at least two generated users in " + usersFile);
+        }
+
+        ServerProcessStats serverStats = serverPid > 0 ? new ServerProcessStats(serverPid) : null;
+        if (serverStats != null) {
+            serverStats.start();
+        }
+
+        LatencyReport report = new LatencyReport();
+        Instant started = Instant.now();
+        Instant end = started.plus(duration);
+
+        // sessions се затваря първи (изчаква всички сесии), едва след това HttpClient-а
+        try (HttpClient httpClient = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .followRedirects(HttpClient.Redirect.NEVER)
+                     .connectTimeout(Duration.ofSeconds(10))
+                     .executor(Executors.newVirtualThreadPerTaskExecutor())
+                     .build();
+             ExecutorService sessions = Executors.newVirtualThreadPerTaskExecutor()) {
+
+            for (int i = 0; i < users; i++) {
+                Account account = accounts.get(i % accounts.size());
+                Duration startDelay = rampUp.multipliedBy(i).dividedBy(users);
+
+                sessions.submit(() -> {
+                    Thread.sleep(startDelay);
+                    new VirtualUser(httpClient, baseUrl, account, accounts, report, thinkTime).runUntil(end);
+                    return null;
+                });
+            }
+        }
+
+        Duration elapsed = Duration.between(started, Instant.now());
+        System.out.printf("%d sessions against %s for %d s (ramp-up %d s)%n", users, baseUrl, elapsed.toSeconds(), rampUp.toSeconds());
+        report.print(System.out, elapsed);
+
+        if (serverStats != null) {
+            serverStats.stop();
+            serverStats.print(System.out);
+        }
+    }
+
+    private static List<Account> readAccounts(Path usersFile, int limit) throws IOException {
+
+        List<Account> accounts = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(usersFile)) {
+            reader.readLine();
+            String line;
+            while (accounts.size() < limit && (line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    accounts.add(Account.parse(line));
+                }
+            }
+        }
+
+        return accounts;
+    }
+}
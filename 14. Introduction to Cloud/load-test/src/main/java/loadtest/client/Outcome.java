@@ -0,0 +1,30 @@
+package loadtest.client;
+
+public enum Outcome {
+
+    OK,
+    RATE_LIMITED,
+    CLIENT_ERROR,
+    SERVER_ERROR,
+    // Сесията е изтекла / login-ът не е минал - пренасочване към /login
+    UNAUTHENTICATED,
+    IO_ERROR;
+
+    static Outcome of(int status, String location) {
+
+        if (status == 429) {
+            return RATE_LIMITED;
+        }
+        if (status >= 500) {
+            return SERVER_ERROR;
+        }
+        if (status >= 400) {
+            return CLIENT_ERROR;
+        }
+        if (status >= 300 && location != null && location.contains("/login")) {
+            return UNAUTHENTICATED;
+        }
+
+        return OK;
+    }
+}
@@ -0,0 +1,34 @@
+package loadtest.client;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+// Смесица от действия на влязъл потребител; weight - относителна честота
+public enum Scenario {
+
+    LOGIN(0),
+    DASHBOARD(50),
+    TOP_UP(15),
+    TRANSFER(15),
+    NOTIFICATIONS(20);
+
+    private static final int TOTAL_WEIGHT = DASHBOARD.weight + TOP_UP.weight + TRANSFER.weight + NOTIFICATIONS.weight;
+
+    private final int weight;
+
+    Scenario(int weight) {
+        this.weight = weight;
+    }
+
+    static Scenario next() {
+
+        int roll = ThreadLocalRandom.current().nextInt(TOTAL_WEIGHT);
+        for (Scenario scenario : values()) {
+            roll -= scenario.weight;
+            if (roll < 0) {
+                return scenario;
+            }
+        }
+
+        return DASHBOARD;
+    }
+}
@@ -0,0 +1,65 @@
+package loadtest.client;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+
+// RSS и брой нишки на процеса на сървъра от /proc/<pid>/status (Linux) - за сравнение virtual срещу platform threads
+class ServerProcessStats {
+
+    private final long pid;
+    private final Path status;
+    private final AtomicLong peakRssKb = new AtomicLong();
+    private final AtomicLong peakThreads = new AtomicLong();
+    private volatile boolean running = true;
+
+    ServerProcessStats(long pid) {
+        this.pid = pid;
+        this.status = Path.of("/proc", String.valueOf(pid), "status");
+    }
+
+    void start() {
+
+        Thread.ofVirtual().name("server-process-stats").start(() -> {
+            while (running) {
+                sample();
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+    }
+
+    void stop() {
+        running = false;
+        sample();
+    }
+
+    void print(PrintStream out) {
+        out.printf("Server pid %d: peak RSS %.1f MB, peak threads %d%n", pid, peakRssKb.get() / 1024.0, peakThreads.get());
+    }
+
+    private void sample() {
+
+        try {
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith("VmRSS:")) {
+                    peakRssKb.accumulateAndGet(parseValue(line), Math::max);
+                } else if (line.startsWith("Threads:")) {
+                    peakThreads.accumulateAndGet(parseValue(line), Math::max);
+                }
+            }
+        } catch (IOException e) {
+            running = false;
+        }
+    }
+
+    // "VmRSS:     123456 kB", "Threads:    42"
+    private static long parseValue(String line) {
+        return Long.parseLong(line.substring(line.indexOf(':') + 1).trim().split("\\s+")[0]);
+    }
+}
@@ -0,0 +1,206 @@
+package loadtest.client;
+
+import loadtest.generator.DataGenerator;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Една браузър сесия: form login, после случайни сценарии до края на теста.
+// Cookie-тата се пазят тук, а не в CookieHandler на HttpClient-а - клиентът е общ за всички потребители.
+class VirtualUser {
+
+    private static final Pattern CSRF_TOKEN = Pattern.compile("name=\"_csrf\"[^>]*value=\"([^\"]+)\"");
+    private static final String TRANSFER_AMOUNT = "0.01";
+
+    private final HttpClient httpClient;
+    private final String baseUrl;
+    private final Account account;
+    private final List<Account> accounts;
+    private final LatencyReport report;
+    private final Duration thinkTime;
+    private final Map<String, String> cookies = new LinkedHashMap<>();
+
+    VirtualUser(HttpClient httpClient, String baseUrl, Account account, List<Account> accounts, LatencyReport report, Duration thinkTime) {
+        this.httpClient = httpClient;
+        this.baseUrl = baseUrl;
+        this.account = account;
+        this.accounts = accounts;
+        this.report = report;
+        this.thinkTime = thinkTime;
+    }
+
+    void runUntil(Instant end) throws InterruptedException {
+
+        boolean loggedIn = execute(Scenario.LOGIN);
+
+        while (Instant.now().isBefore(end)) {
+
+            if (!loggedIn) {
+                cookies.clear();
+                loggedIn = execute(Scenario.LOGIN);
+                continue;
+            }
+
+            Outcome outcome = executeScenario(Scenario.next());
+            loggedIn = outcome != Outcome.UNAUTHENTICATED;
+
+            if (!thinkTime.isZero()) {
+                Thread.sleep(thinkTime);
+            }
+        }
+    }
+
+    private boolean execute(Scenario scenario) {
+        return executeScenario(scenario) == Outcome.OK;
+    }
+
+    private Outcome executeScenario(Scenario scenario) {
+
+        long started = System.nanoTime();
+        Outcome outcome;
+        try {
+            outcome = switch (scenario) {
+                case LOGIN -> login();
+                case DASHBOARD -> get("/home").outcome();
+                case NOTIFICATIONS -> get("/notifications").outcome();
+                case TOP_UP -> topUp();
+                case TRANSFER -> transfer();
+            };
+        } catch (IOException e) {
+            outcome = Outcome.IO_ERROR;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            outcome = Outcome.IO_ERROR;
+        }
+
+        report.record(scenario, System.nanoTime() - started, outcome);
+        return outcome;
+    }
+
+    private Outcome login() throws IOException, InterruptedException {
+
+        Page loginPage = get("/login");
+        if (loginPage.outcome() != Outcome.OK) {
+            return loginPage.outcome();
+        }
+
+        Page result = post("/login", form(
+                "username", account.username(),
+                "password", DataGenerator.PASSWORD,
+                "_csrf", loginPage.csrfToken()), null);
+
+        // Успешен login - redirect към /home, грешна парола - към /login?error
+        return result.outcome();
+    }
+
+    private Outcome topUp() throws IOException, InterruptedException {
+
+        Page walletsPage = get("/wallets");
+        if (walletsPage.outcome() != Outcome.OK) {
+            return walletsPage.outcome();
+        }
+
+        // PUT през HiddenHttpMethodFilter, както от формата в страницата
+        return post("/wallets/%s/balance/top-up".formatted(account.walletId()), form(
+                "_method", "put",
+                "_csrf", walletsPage.csrfToken()), UUID.randomUUID().toString()).outcome();
+    }
+
+    private Outcome transfer() throws IOException, InterruptedException {
+
+        Page transferPage = get("/transfers");
+        if (transferPage.outcome() != Outcome.OK) {
+            return transferPage.outcome();
+        }
+
+        Account receiver = accounts.get(ThreadLocalRandom.current().nextInt(accounts.size()));
+        return post("/transfers", form(
+                "fromWalletId", account.walletId().toString(),
+                "toUsername", receiver.username(),
+                "amount", TRANSFER_AMOUNT,
+                "_csrf", transferPage.csrfToken()), UUID.randomUUID().toString()).outcome();
+    }
+
+    private Page get(String path) throws IOException, InterruptedException {
+
+        HttpRequest request = request(path).GET().build();
+        return send(request);
+    }
+
+    private Page post(String path, Map<String, String> form, String idempotencyKey) throws IOException, InterruptedException {
+
+        StringJoiner body = new StringJoiner("&");
+        form.forEach((name, value) -> body.add(encode(name) + "=" + encode(value == null ? "" : value)));
+
+        HttpRequest.Builder request = request(path)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()));
+        if (idempotencyKey != null) {
+            request.header("Idempotency-Key", idempotencyKey);
+        }
+
+        return send(request.build());
+    }
+
+    private HttpRequest.Builder request(String path) {
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30));
+        if (!cookies.isEmpty()) {
+            StringJoiner cookieHeader = new StringJoiner("; ");
+            cookies.forEach((name, value) -> cookieHeader.add(name + "=" + value));
+            request.header("Cookie", cookieHeader.toString());
+        }
+
+        return request;
+    }
+
+    private Page send(HttpRequest request) throws IOException, InterruptedException {
+
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+
+        for (String setCookie : response.headers().allValues("Set-Cookie")) {
+            String pair = setCookie.split(";", 2)[0];
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                cookies.put(pair.substring(0, separator), pair.substring(separator + 1));
+            }
+        }
+
+        String location = response.headers().firstValue("Location").orElse(null);
+        Matcher csrf = CSRF_TOKEN.matcher(response.body());
+        return new Page(Outcome.of(response.statusCode(), location), csrf.find() ? csrf.group(1) : null);
+    }
+
+    // Map.of не приема null - страница без CSRF token просто ще върне 403
+    private static Map<String, String> form(String... namesAndValues) {
+
+        Map<String, String> form = new LinkedHashMap<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            form.put(namesAndValues[i], namesAndValues[i + 1]);
+        }
+
+        return form;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private record Page(Outcome outcome, String csrfToken) {
+    }
+}
@@ -0,0 +1,212 @@
+package loadtest.generator;
+
+import app.Application;
+import app.subscription.model.Subscription;
+import app.subscription.model.SubscriptionPeriod;
+import app.subscription.model.SubscriptionStatus;
+import app.subscription.model.SubscriptionType;
+import app.transaction.model.Transaction;
+import app.transaction.model.TransactionStatus;
+import app.transaction.model.TransactionType;
+import app.user.model.Country;
+import app.user.model.User;
+import app.user.model.UserRole;
+import app.wallet.model.Wallet;
+import app.wallet.model.WalletStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import loadtest.Options;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Пише директно през entity-тата на smart-wallet-application (същите таблици, колони и id генератори),
+// но без service слоя: по chunk-size потребителя в транзакция, INSERT-ите отиват като JDBC batch
+// (hibernate.jdbc.batch_size + order_inserts; за MySQL rewriteBatchedStatements=true ги прави multi-row INSERT).
+// Всички потребители са с парола 123123 - BCrypt се смята веднъж.
+public class DataGenerator {
+
+    public static final String PASSWORD = "123123";
+    public static final String USERNAME_PREFIX = "loadtest";
+
+    private static final Currency EUR = Currency.getInstance("EUR");
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final String passwordHash;
+    private final int transactionsPerWallet;
+    private final LocalDateTime now = LocalDateTime.now();
+
+    private DataGenerator(EntityManagerFactory entityManagerFactory, String passwordHash, int transactionsPerWallet) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.passwordHash = passwordHash;
+        this.transactionsPerWallet = transactionsPerWallet;
+    }
+
+    public static void run(Options options) throws IOException {
+
+        int users = options.getInt("users", 1_000_000);
+        int chunkSize = options.getInt("chunk-size", 1000);
+        int transactionsPerWallet = options.getInt("transactions-per-wallet", 10);
+        Path output = options.getPath("output", "target/load-test-users.csv");
+
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("server.port", "0");
+        properties.put("spring.jpa.properties.hibernate.jdbc.batch_size", String.valueOf(chunkSize));
+        properties.put("spring.jpa.properties.hibernate.order_inserts", "true");
+        properties.putAll(options.withPrefix("spring."));
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .properties(properties)
+                .run()) {
+
+            String passwordHash = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+            DataGenerator generator = new DataGenerator(context.getBean(EntityManagerFactory.class), passwordHash, transactionsPerWallet);
+            generator.generate(users, chunkSize, output);
+        }
+    }
+
+    private void generate(int users, int chunkSize, Path output) throws IOException {
+
+        long started = System.nanoTime();
+        if (output.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(output.toAbsolutePath().getParent());
+        }
+
+        try (BufferedWriter csv = Files.newBufferedWriter(output)) {
+
+            csv.write("username,walletId");
+            csv.newLine();
+
+            for (int from = 0; from < users; from += chunkSize) {
+
+                List<Wallet> wallets = insertChunk(from, Math.min(users, from + chunkSize));
+                for (Wallet wallet : wallets) {
+                    csv.write(wallet.getOwner().getUsername() + "," + wallet.getId());
+                    csv.newLine();
+                }
+
+                int done = Math.min(users, from + chunkSize);
+                if (done % (chunkSize * 100) == 0 || done == users) {
+                    long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+                    System.out.printf("%d/%d users (%d transactions) in %d s - %.0f users/s%n",
+                            done, users, (long) done * transactionsPerWallet, elapsedMs / 1000, done * 1000.0 / Math.max(1, elapsedMs));
+                }
+            }
+        }
+
+        System.out.printf("Credentials (password %s) written to %s.%n", PASSWORD, output);
+    }
+
+    // Една транзакция на chunk; flush + clear - persistence context-ът не расте
+    private List<Wallet> insertChunk(int from, int to) {
+
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+
+            List<User> users = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                User user = user(i);
+                entityManager.persist(user);
+                users.add(user);
+            }
+
+            List<Wallet> wallets = new ArrayList<>(users.size());
+            for (User user : users) {
+                entityManager.persist(subscription(user));
+
+                Wallet wallet = wallet(user);
+                entityManager.persist(wallet);
+                wallets.add(wallet);
+
+                for (int i = 0; i < transactionsPerWallet; i++) {
+                    entityManager.persist(deposit(wallet, i));
+                }
+            }
+
+            entityManager.flush();
+            entityManager.clear();
+            entityManager.getTransaction().commit();
+
+            return wallets;
+        } catch (RuntimeException e) {
+            if (entityManager.getTransaction().isActive()) {
+                entityManager.getTransaction().rollback();
+            }
+            throw e;
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private User user(int index) {
+
+        return User.builder()
+                .username(USERNAME_PREFIX + index)
+                .password(passwordHash)
+                .role(UserRole.USER)
+                .country(Country.BULGARIA)
+                .isActive(true)
+                .createdOn(now)
+                .updatedOn(now)
+                .build();
+    }
+
+    // Както при регистрация - DEFAULT абонамент, един портфейл
+    private Subscription subscription(User owner) {
+
+        return Subscription.builder()
+                .owner(owner)
+                .type(SubscriptionType.DEFAULT)
+                .price(BigDecimal.ZERO)
+                .status(SubscriptionStatus.ACTIVE)
+                .period(SubscriptionPeriod.MONTHLY)
+                .renewalAllowed(true)
+                .createdOn(now)
+                .completedOn(now.plusMonths(1))
+                .build();
+    }
+
+    // Достатъчно баланс за много transfer-и по 0.01 по време на теста
+    private Wallet wallet(User owner) {
+
+        return Wallet.builder()
+                .owner(owner)
+                .status(WalletStatus.ACTIVE)
+                .balance(new BigDecimal("1000.00"))
+                .currency(EUR)
+                .createdOn(now)
+                .updatedOn(now)
+                .build();
+    }
+
+    private Transaction deposit(Wallet wallet, int index) {
+
+        return Transaction.builder()
+                .owner(wallet.getOwner())
+                .sender("Smart Wallet Ltd")
+                .receiver(wallet.getId().toString())
+                .receiverWalletId(wallet.getId())
+                .amount(new BigDecimal("20.00"))
+                .balanceLeft(new BigDecimal("20.00").multiply(BigDecimal.valueOf(index + 1)))
+                .currency(EUR)
+                .type(TransactionType.DEPOSIT)
+                .status(TransactionStatus.SUCCEEDED)
+                .description("Top up 20.00")
+                .createdOn(now.minusMinutes(transactionsPerWallet - index))
+                .build();
+    }
+}
@@ -0,0 +1,71 @@
+package loadtest.standin;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+// Отговаря на всички извиквания на NotificationClient (/api/v1/notifications) веднага и успешно -
+// натоварването мери smart-wallet-application, не notification-svc
+class NotificationSvcStandIn {
+
+    private static final String BASE_PATH = "/api/v1/notifications";
+    private static final byte[] PREFERENCE = """
+            {"type":"EMAIL","enabled":true,"contactInfo":"load-test@smart-wallet.com"}""".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] EMPTY_LIST = "[]".getBytes(StandardCharsets.UTF_8);
+
+    private final HttpServer server;
+    private final LongAdder requests = new LongAdder();
+
+    NotificationSvcStandIn(int port) throws IOException {
+
+        server = HttpServer.create(new InetSocketAddress(port), 1024);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext(BASE_PATH, this::handle);
+    }
+
+    void start() {
+        server.start();
+    }
+
+    long getRequests() {
+        return requests.sum();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+
+        requests.increment();
+        exchange.getRequestBody().readAllBytes();
+
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+
+        if ("GET".equals(method)) {
+            respond(exchange, 200, path.endsWith("/preferences") ? PREFERENCE : EMPTY_LIST);
+        } else if ("POST".equals(method)) {
+            respond(exchange, 201, null);
+        } else {
+            respond(exchange, 200, null);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+            return;
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
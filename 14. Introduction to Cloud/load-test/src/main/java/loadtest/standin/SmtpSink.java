@@ -0,0 +1,84 @@
+package loadtest.standin;
+
+import java.io.*;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+// Минимален SMTP сървър, който приема и изхвърля писмата - за notification-svc без истински mail сървър
+// (spring.mail.host=localhost, spring.mail.port=2525, spring.mail.properties.mail.smtp.auth=false)
+class SmtpSink {
+
+    private final ServerSocket serverSocket;
+    private final LongAdder messages = new LongAdder();
+
+    SmtpSink(int port) throws IOException {
+        this.serverSocket = new ServerSocket(port, 1024);
+    }
+
+    void start() {
+
+        Thread.ofVirtual().name("smtp-sink").start(() -> {
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket socket = serverSocket.accept();
+                    Thread.ofVirtual().start(() -> handle(socket));
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        });
+    }
+
+    long getMessages() {
+        return messages.sum();
+    }
+
+    private void handle(Socket socket) {
+
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII)) {
+
+            reply(out, "220 smtp-sink ESMTP");
+            boolean data = false;
+            String line;
+
+            while ((line = in.readLine()) != null) {
+
+                if (data) {
+                    if (line.equals(".")) {
+                        data = false;
+                        messages.increment();
+                        reply(out, "250 OK");
+                    }
+                    continue;
+                }
+
+                String command = line.length() < 4 ? line : line.substring(0, 4);
+                switch (command.toUpperCase(Locale.ROOT)) {
+                    case "EHLO" -> reply(out, "250-smtp-sink\r\n250 8BITMIME");
+                    case "HELO", "MAIL", "RCPT", "RSET", "NOOP" -> reply(out, "250 OK");
+                    case "DATA" -> {
+                        data = true;
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                    }
+                    case "QUIT" -> {
+                        reply(out, "221 Bye");
+                        return;
+                    }
+                    default -> reply(out, "502 Command not implemented");
+                }
+            }
+        } catch (IOException ignored) {
+            // Клиентът е затворил връзката
+        }
+    }
+
+    private static void reply(Writer out, String response) throws IOException {
+        out.write(response + "\r\n");
+        out.flush();
+    }
+}
@@ -0,0 +1,26 @@
+package loadtest.standin;
+
+import loadtest.Options;
+
+import java.io.IOException;
+
+// notification-svc и SMTP за времето на теста; работят до Ctrl+C
+public class StandIns {
+
+    public static void run(Options options) throws IOException, InterruptedException {
+
+        int notificationPort = options.getInt("notification-port", 8081);
+        int smtpPort = options.getInt("smtp-port", 2525);
+
+        NotificationSvcStandIn notificationSvc = new NotificationSvcStandIn(notificationPort);
+        SmtpSink smtpSink = new SmtpSink(smtpPort);
+        notificationSvc.start();
+        smtpSink.start();
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> System.out.printf(
+                "notification-svc stand-in: %d requests, SMTP sink: %d messages%n", notificationSvc.getRequests(), smtpSink.getMessages())));
+
+        System.out.printf("notification-svc stand-in on :%d%s, SMTP sink on :%d%n", notificationPort, "/api/v1/notifications", smtpPort);
+        Thread.currentThread().join();
+    }
+}
@@ -0,0 +1,135 @@
+package loadtest.startup;
+
+import loadtest.Options;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+
+// Cold start на Docker image-ите: време от docker start до първия HTTP отговор и RSS на JVM-а (PID 1 в контейнера) след него.
+// Всеки image се пуска --runs пъти в нов контейнер - обикновеният Dockerfile срещу Dockerfile.startup (AOT + AppCDS + JRE).
+public class StartupBenchmark {
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(10);
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(200))
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .build();
+
+    private final List<String> images;
+    private final int port;
+    private final URI firstRequest;
+    private final int runs;
+    private final Duration timeout;
+    private final List<String> dockerArgs;
+
+    private StartupBenchmark(Options options) {
+
+        this.images = List.of(options.getString("images", "").split(","));
+        this.port = options.getInt("port", 8080);
+        this.firstRequest = URI.create("http://localhost:%d%s".formatted(port, options.getString("path", "/actuator/health")));
+        this.runs = options.getInt("runs", 5);
+        this.timeout = options.getDuration("timeout", Duration.ofMinutes(2));
+        String extra = options.getString("docker-args", "").trim();
+        this.dockerArgs = extra.isEmpty() ? List.of() : List.of(extra.split("\\s+"));
+    }
+
+    public static void run(Options options) throws Exception {
+
+        StartupBenchmark benchmark = new StartupBenchmark(options);
+        if (benchmark.images.isEmpty() || benchmark.images.get(0).isBlank()) {
+            throw new IllegalArgumentException("--images=<image>[,<image>...] is required.");
+        }
+
+        Map<String, List<Sample>> results = new LinkedHashMap<>();
+        for (String image : benchmark.images) {
+            List<Sample> samples = new ArrayList<>();
+            for (int i = 1; i <= benchmark.runs; i++) {
+                Sample sample = benchmark.measure(image);
+                System.out.printf("%s run %d: first request %d ms, RSS %.1f MB%n", image, i, sample.firstRequestMillis(), sample.rssKb() / 1024.0);
+                samples.add(sample);
+            }
+            results.put(image, samples);
+        }
+
+        System.out.println();
+        System.out.printf("%-50s %12s %12s %12s %12s%n", "image", "median ms", "min ms", "max ms", "median RSS MB");
+        results.forEach((image, samples) -> {
+            long[] millis = samples.stream().mapToLong(Sample::firstRequestMillis).sorted().toArray();
+            long[] rss = samples.stream().mapToLong(Sample::rssKb).sorted().toArray();
+            System.out.printf("%-50s %12d %12d %12d %12.1f%n", image, millis[millis.length / 2], millis[0], millis[millis.length - 1], rss[rss.length / 2] / 1024.0);
+        });
+    }
+
+    // docker create е извън измерването - меренето започва от docker start
+    private Sample measure(String image) throws IOException, InterruptedException {
+
+        List<String> create = new ArrayList<>(List.of("docker", "create", "-p", "%d:%d".formatted(port, port)));
+        create.addAll(dockerArgs);
+        create.add(image);
+        String container = docker(create).trim();
+
+        try {
+            long start = System.nanoTime();
+            docker(List.of("docker", "start", container));
+            awaitFirstResponse(container, start);
+            long firstRequestMillis = (System.nanoTime() - start) / 1_000_000;
+
+            return new Sample(firstRequestMillis, rssKb(container));
+        } finally {
+            docker(List.of("docker", "rm", "-f", container));
+        }
+    }
+
+    // Всеки HTTP отговор под 500 - 302 към /login или 401 също значи, че приложението обслужва заявки
+    private void awaitFirstResponse(String container, long start) throws InterruptedException {
+
+        HttpRequest request = HttpRequest.newBuilder(firstRequest).timeout(Duration.ofSeconds(5)).GET().build();
+        long deadline = start + timeout.toNanos();
+
+        while (System.nanoTime() < deadline) {
+            try {
+                if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() < 500) {
+                    return;
+                }
+            } catch (IOException e) {
+                // още не слуша на порта
+            }
+            Thread.sleep(POLL_INTERVAL);
+        }
+
+        throw new IllegalStateException("Container [%s] did not answer %s within %s.".formatted(container, firstRequest, timeout));
+    }
+
+    // ENTRYPOINT е в exec форма - java е PID 1 в контейнера
+    private long rssKb(String container) throws IOException, InterruptedException {
+
+        for (String line : docker(List.of("docker", "exec", container, "cat", "/proc/1/status")).split("\n")) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.substring(line.indexOf(':') + 1).trim().split("\\s+")[0]);
+            }
+        }
+
+        throw new IllegalStateException("No VmRSS in /proc/1/status of container [%s].".formatted(container));
+    }
+
+    private static String docker(List<String> command) throws IOException, InterruptedException {
+
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        if (process.waitFor() != 0) {
+            throw new IllegalStateException("%s failed: %s".formatted(String.join(" ", command), output));
+        }
+
+        return output;
+    }
+
+    private record Sample(long firstRequestMillis, long rssKb) {
+    }
+}
@@ -0,0 +1,5 @@
+package app.monitoring;
+
+// Място (stack frame), на което virtual thread е бил pin-нат към carrier thread-а
+public record PinnedSite(String frame, long count, long maxDurationMs, String sampleStackTrace) {
+}
@@ -0,0 +1,132 @@
+package app.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+// Активен само при spring.threads.virtual.enabled=true (и Java 21+).
+// Слуша JFR събитието jdk.VirtualThreadPinned - virtual thread, който блокира вътре в synchronized
+// (напр. стар JDBC драйвер, SMTP клиент) и държи carrier thread-а зает.
+// Събира местата по най-горния frame извън JDK-а -> GET /actuator/pinning и метрика <prefix>.virtual-threads.pinned.
+// Префиксът (monitoring.metric-prefix) е името на услугата - класът е еднакъв в smart-wallet-application и notification-svc.
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int STACK_DEPTH = 12;
+    private static final Duration DEFAULT_THRESHOLD = Duration.ofMillis(20);
+
+    private final Timer pinnedTimer;
+    private final Duration threshold;
+    private final Map<String, Site> sites = new ConcurrentHashMap<>();
+
+    private volatile RecordingStream recordingStream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry, Environment environment,
+                                       @Value("${monitoring.metric-prefix}") String metricPrefix) {
+
+        this.pinnedTimer = Timer.builder(metricPrefix + ".virtual-threads.pinned")
+                .description("Time virtual threads spent pinned to their carrier thread")
+                .register(meterRegistry);
+        this.threshold = environment.getProperty(metricPrefix + ".virtual-threads.pinning-threshold", Duration.class, DEFAULT_THRESHOLD);
+    }
+
+    @Override
+    public void start() {
+
+        RecordingStream stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        this.recordingStream = stream;
+
+        log.info("Virtual thread pinning monitor started (threshold = {} ms).", threshold.toMillis());
+    }
+
+    @Override
+    public void stop() {
+
+        RecordingStream stream = this.recordingStream;
+        if (stream != null) {
+            stream.close();
+            this.recordingStream = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return recordingStream != null;
+    }
+
+    public List<PinnedSite> getPinnedSites() {
+
+        return sites.entrySet().stream()
+                .map(entry -> entry.getValue().toPinnedSite(entry.getKey()))
+                .sorted(Comparator.comparingLong(PinnedSite::count).reversed())
+                .toList();
+    }
+
+    private void onPinned(RecordedEvent event) {
+
+        pinnedTimer.record(event.getDuration());
+
+        List<RecordedFrame> frames = event.getStackTrace() == null ? List.of() : event.getStackTrace().getFrames();
+        String frame = frames.stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .map(VirtualThreadPinningMonitor::describe)
+                .filter(description -> !description.startsWith("java.") && !description.startsWith("jdk.") && !description.startsWith("sun."))
+                .findFirst()
+                .orElse("unknown");
+
+        Site site = sites.computeIfAbsent(frame, f -> {
+            String stackTrace = frames.stream().limit(STACK_DEPTH).map(VirtualThreadPinningMonitor::describe).collect(Collectors.joining(" <- "));
+            log.warn("Virtual thread pinned for [{}] ms at [{}]. Stack: {}", event.getDuration().toMillis(), f, stackTrace);
+            return new Site(stackTrace);
+        });
+        site.record(event.getDuration());
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+
+    private static final class Site {
+
+        private final String sampleStackTrace;
+        private final LongAdder count = new LongAdder();
+        private final AtomicLong maxDurationMs = new AtomicLong();
+
+        private Site(String sampleStackTrace) {
+            this.sampleStackTrace = sampleStackTrace;
+        }
+
+        private void record(Duration duration) {
+            count.increment();
+            maxDurationMs.accumulateAndGet(duration.toMillis(), Math::max);
+        }
+
+        private PinnedSite toPinnedSite(String frame) {
+            return new PinnedSite(frame, count.sum(), maxDurationMs.get(), sampleStackTrace);
+        }
+    }
+}